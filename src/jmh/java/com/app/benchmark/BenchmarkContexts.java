@@ -0,0 +1,34 @@
+package com.app.benchmark;
+
+import com.app.AppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application context for benchmarks: no web server, an embedded H2 database in
+ * PostgreSQL mode, and Talon.One pointed at a {@link StubTalonOneServer}. Background workers are
+ * slowed down so they do not compete with the measured code.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String talonOneBaseUrl) {
+        return new SpringApplicationBuilder(AppApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "talonone.base-url=" + talonOneBaseUrl,
+                        "talonone.api-key=benchmark",
+                        "loyalty.outbox.poll-interval-millis=3600000",
+                        "rewards.local-engine.refresh-interval-millis=3600000",
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
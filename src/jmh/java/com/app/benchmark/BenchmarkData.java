@@ -0,0 +1,102 @@
+package com.app.benchmark;
+
+import com.app.model.CartRequest;
+import com.app.model.Item;
+import com.app.model.OrderRequest;
+import com.app.model.ProfileDTO;
+import com.app.model.SessionDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic payloads shared by the benchmark suites.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Item> items(int lines) {
+        List<Item> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(Item.builder()
+                    .sku("SKU-" + i)
+                    .name("Product " + i)
+                    .quantity(1 + i % 3)
+                    .price(9.99 + i % 50)
+                    .build());
+        }
+        return items;
+    }
+
+    static CartRequest cart(Long userId, int lines) {
+        List<Item> items = items(lines);
+        double total = 0.0;
+        for (Item item : items) {
+            total += item.getPrice() * item.getQuantity();
+        }
+        return CartRequest.builder()
+                .userId(userId)
+                .items(items)
+                .total(total)
+                .couponCodes(List.of("WELCOME10"))
+                .build();
+    }
+
+    static OrderRequest orderRequest(Long userId, int lines) {
+        return OrderRequest.builder()
+                .userId(userId)
+                .cartRequest(cart(userId, lines))
+                .build();
+    }
+
+    static SessionDTO session(int lines) {
+        CartRequest cart = cart(42L, lines);
+        return SessionDTO.builder()
+                .sessionId("session-42")
+                .userId("42")
+                .items(cart.getItems())
+                .total(cart.getTotal())
+                .couponCodes(cart.getCouponCodes())
+                .build();
+    }
+
+    static ProfileDTO profile() {
+        return ProfileDTO.builder()
+                .userId("42")
+                .email("jane.doe@example.com")
+                .name("Jane Doe")
+                .loyaltyPoints(1250)
+                .build();
+    }
+
+    /**
+     * A session evaluation response shaped like Talon.One's: the fields RewardsResponse maps plus
+     * the bulk of effects and session echo that the application does not use.
+     */
+    static String rewardsJson() {
+        StringBuilder json = new StringBuilder(8192);
+        json.append("{\"discount\":12.5,\"appliedCampaigns\":[\"SUMMER10\",\"WELCOME10\"],")
+                .append("\"loyaltyPointsUsed\":0,\"loyaltyPointsEarned\":125,\"effects\":[");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"campaignId\":").append(1000 + i)
+                    .append(",\"rulesetId\":").append(2000 + i)
+                    .append(",\"ruleIndex\":").append(i)
+                    .append(",\"ruleName\":\"Rule ").append(i)
+                    .append("\",\"effectType\":\"setDiscount\",\"props\":{\"name\":\"Discount ").append(i)
+                    .append("\",\"value\":").append(i * 0.25).append("}}");
+        }
+        json.append("],\"customerSession\":{\"integrationId\":\"session-42\",\"state\":\"open\",\"cartItems\":[");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"sku\":\"SKU-").append(i).append("\",\"quantity\":1,\"price\":").append(9.99 + i).append('}');
+        }
+        return json.append("]}}").toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the checkout hot-path benchmarks and writes machine-readable JSON results, including the
+ * GC profiler's allocation rate per operation ({@code gc.alloc.rate.norm}), for release-over-release
+ * tracking.
+ * <p>
+ * Usage: <code>BenchmarkRunner [result-file] [include-regex]</code>, defaulting to
+ * <code>target/jmh-results.json</code> and all suites.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "target/jmh-results.json";
+        String include = args.length > 1 ? args[1] : "com\\.app\\.benchmark\\..*Benchmark";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
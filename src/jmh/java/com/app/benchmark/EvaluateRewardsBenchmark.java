@@ -0,0 +1,84 @@
+package com.app.benchmark;
+
+import com.app.model.CartRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.repository.UserRepository;
+import com.app.service.RewardsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RewardsService} against a stub Talon.One with configurable latency: blocking and reactive
+ * evaluation, and the cached preview path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class EvaluateRewardsBenchmark {
+
+    @Param({"0", "5", "25"})
+    private long talonOneLatencyMillis;
+
+    @Param({"10", "500"})
+    private int cartLines;
+
+    private StubTalonOneServer talonOne;
+    private ConfigurableApplicationContext context;
+    private RewardsService rewardsService;
+    private CartRequest cart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        talonOne = StubTalonOneServer.start(talonOneLatencyMillis);
+        context = BenchmarkContexts.start(talonOne.baseUrl());
+        rewardsService = context.getBean(RewardsService.class);
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .email("bench@example.com")
+                .name("Bench User")
+                .loyaltyPoints(100)
+                .build());
+        cart = BenchmarkData.cart(user.getId(), cartLines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        talonOne.close();
+    }
+
+    @Benchmark
+    public RewardsResponse evaluateRewards() {
+        return rewardsService.evaluateRewards(cart);
+    }
+
+    @Benchmark
+    public RewardsResponse evaluateRewardsReactive() {
+        return rewardsService.evaluateRewardsReactive(cart).block();
+    }
+
+    @Benchmark
+    public RewardsResponse previewRewardsCached() {
+        return rewardsService.previewRewards(cart);
+    }
+}
@@ -0,0 +1,86 @@
+package com.app.benchmark;
+
+import com.app.model.Order;
+import com.app.model.OrderBatchResult;
+import com.app.model.OrderRequest;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.repository.UserRepository;
+import com.app.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order persistence against an embedded database: single {@link OrderService#saveOrder} calls
+ * versus the bulk path, both reported per order.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SaveOrderBenchmark {
+
+    private static final int BATCH_ORDERS = 100;
+
+    @Param({"1", "10", "100"})
+    private int itemsPerOrder;
+
+    private StubTalonOneServer talonOne;
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long userId;
+    private RewardsResponse rewards;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        talonOne = StubTalonOneServer.start(0);
+        context = BenchmarkContexts.start(talonOne.baseUrl());
+        orderService = context.getBean(OrderService.class);
+        userId = context.getBean(UserRepository.class).save(User.builder()
+                .email("orders@example.com")
+                .name("Order Bench User")
+                .build()).getId();
+        rewards = RewardsResponse.builder().discount(5.0).appliedCampaigns(List.of("WELCOME10")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        talonOne.close();
+    }
+
+    @Benchmark
+    public Order saveOrder() {
+        return orderService.saveOrder(BenchmarkData.orderRequest(userId, itemsPerOrder), rewards);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_ORDERS)
+    public List<OrderBatchResult> saveOrdersBatch() {
+        List<OrderRequest> orderRequests = new ArrayList<>(BATCH_ORDERS);
+        for (int i = 0; i < BATCH_ORDERS; i++) {
+            orderRequests.add(BenchmarkData.orderRequest(userId, itemsPerOrder));
+        }
+        return orderService.saveOrdersBatch(orderRequests);
+    }
+}
@@ -0,0 +1,87 @@
+package com.app.benchmark;
+
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.talonone.TalonOneCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the Talon.One payloads: writing SessionDTO/ProfileDTO request bodies and
+ * reading a session evaluation response, with a plain ObjectMapper, through the generic map tree
+ * the client used to produce, and with the prebuilt {@link TalonOneCodec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    @Param({"5", "100", "2000"})
+    private int cartLines;
+
+    private ObjectMapper objectMapper;
+    private TalonOneCodec codec;
+    private SessionDTO session;
+    private ProfileDTO profile;
+    private byte[] rewardsJson;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot injects into the application
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = new TalonOneCodec(objectMapper);
+        session = BenchmarkData.session(cartLines);
+        profile = BenchmarkData.profile();
+        rewardsJson = BenchmarkData.rewardsJson().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] writeSession() throws IOException {
+        return objectMapper.writeValueAsBytes(session);
+    }
+
+    @Benchmark
+    public byte[] writeProfile() throws IOException {
+        return objectMapper.writeValueAsBytes(profile);
+    }
+
+    @Benchmark
+    public RewardsResponse readRewardsTyped() throws IOException {
+        return objectMapper.readValue(rewardsJson, RewardsResponse.class);
+    }
+
+    @Benchmark
+    public RewardsResponse readRewardsViaMapTree() throws IOException {
+        Object tree = objectMapper.readValue(rewardsJson, Object.class);
+        return objectMapper.convertValue(tree, RewardsResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeSessionCodec() throws IOException {
+        return codec.writeSession(session);
+    }
+
+    @Benchmark
+    public RewardsResponse readRewardsCodec() throws IOException {
+        return codec.readRewards(rewardsJson);
+    }
+}
@@ -0,0 +1,82 @@
+package com.app.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process stand-in for the Talon.One endpoints used by {@link com.app.talonone.TalonOneClient},
+ * answering every request after a fixed latency. Runs on the JDK HTTP server, so benchmarks need no
+ * network access and consume no Talon.One quota.
+ */
+final class StubTalonOneServer implements AutoCloseable {
+
+    private static final byte[] SESSION_RESPONSE = BenchmarkData.rewardsJson().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CAMPAIGNS_RESPONSE = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMillis;
+
+    private StubTalonOneServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/v1/profiles", exchange -> respond(exchange, 200, null));
+        server.createContext("/v1/sessions", exchange -> respond(exchange, 200, SESSION_RESPONSE));
+        server.createContext("/v1/loyalty/", exchange -> respond(exchange, 200, null));
+        server.createContext("/v1/campaigns", exchange -> respond(exchange, 200, CAMPAIGNS_RESPONSE));
+        server.start();
+    }
+
+    /**
+     * Starts a stub on a free local port.
+     *
+     * @param latencyMillis Delay applied before every response.
+     * @return The running stub.
+     */
+    static StubTalonOneServer start(long latencyMillis) throws IOException {
+        return new StubTalonOneServer(latencyMillis);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.readAllBytes();
+        }
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.app.loadtest;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Response latency injected by the {@link TalonOneSimulator}.
+ * <p>
+ * Parsed from a compact spec so it can be passed on the command line:
+ * <ul>
+ *   <li><code>fixed:20</code> - always 20 ms</li>
+ *   <li><code>uniform:5:50</code> - uniformly between 5 and 50 ms</li>
+ *   <li><code>lognormal:20:150</code> - log-normal with a 20 ms median and a 150 ms p99, the
+ *       long-tailed shape typical of remote APIs</li>
+ * </ul>
+ * </p>
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Standard normal quantile of 0.99, used to derive the log-normal sigma from the p99.
+     */
+    double Z_99 = 2.326348;
+
+    /**
+     * @param random Source of randomness of the calling thread.
+     * @return The next latency in microseconds, never negative.
+     */
+    long sampleMicros(RandomGenerator random);
+
+    static LatencyDistribution fixed(double millis) {
+        long micros = Math.round(millis * 1000);
+        return random -> micros;
+    }
+
+    static LatencyDistribution uniform(double minMillis, double maxMillis) {
+        long min = Math.round(minMillis * 1000);
+        long max = Math.round(maxMillis * 1000);
+        if (max <= min) {
+            return random -> min;
+        }
+        return random -> random.nextLong(min, max + 1);
+    }
+
+    static LatencyDistribution logNormal(double medianMillis, double p99Millis) {
+        if (medianMillis <= 0 || p99Millis < medianMillis) {
+            throw new IllegalArgumentException("log-normal latency needs 0 < median <= p99");
+        }
+        double mu = Math.log(medianMillis * 1000);
+        double sigma = Math.log(p99Millis / medianMillis) / Z_99;
+        return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Parses a distribution spec such as <code>lognormal:20:150</code>.
+     *
+     * @param spec The spec.
+     * @return The distribution.
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            return switch (parts[0]) {
+                case "fixed" -> fixed(Double.parseDouble(parts[1]));
+                case "uniform" -> uniform(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed latency distribution: " + spec, ex);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.app.loadtest;
+
+import com.app.model.CartRequest;
+import com.app.model.Item;
+import com.app.model.OrderRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator for the checkout endpoints.
+ * <p>
+ * Requests are issued on a fixed schedule (constant or Poisson arrivals) independent of how fast the
+ * application answers, so a slow application accumulates queued work instead of silently receiving
+ * less load. Latency is measured from the <em>scheduled</em> start of each request, which keeps
+ * coordinated omission out of the reported percentiles. Requests that would exceed
+ * <code>maxInFlight</code> are not sent and are reported as dropped.
+ * </p>
+ */
+public final class LoadDriver {
+
+    private static final int PAYLOADS_PER_SCENARIO = 1024;
+
+    /**
+     * Endpoints exercised by the load test.
+     */
+    public enum Scenario {
+        ORDERS("/orders"),
+        REWARDS("/rewards/evaluate");
+
+        private final String path;
+
+        Scenario(String path) {
+            this.path = path;
+        }
+
+        public String path() {
+            return path;
+        }
+    }
+
+    /**
+     * Load profile.
+     *
+     * @param target            Base URL of the application.
+     * @param requestsPerSecond Target arrival rate across all scenarios.
+     * @param warmup            Initial period whose requests are sent but not reported.
+     * @param duration          Measured period following the warmup.
+     * @param mix               Relative weight of each scenario.
+     * @param poissonArrivals   Exponentially distributed gaps instead of a constant interval.
+     * @param firstUserId       Lowest existing user ID to place orders for.
+     * @param lastUserId        Highest existing user ID to place orders for.
+     * @param itemsPerCart      Average number of lines per generated cart.
+     * @param maxInFlight       Upper bound of outstanding requests.
+     * @param requestTimeout    Client-side timeout of a single request.
+     */
+    public record Settings(URI target,
+                           double requestsPerSecond,
+                           Duration warmup,
+                           Duration duration,
+                           Map<Scenario, Integer> mix,
+                           boolean poissonArrivals,
+                           long firstUserId,
+                           long lastUserId,
+                           int itemsPerCart,
+                           int maxInFlight,
+                           Duration requestTimeout) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient httpClient;
+    private final Map<Scenario, List<byte[]>> payloads = new EnumMap<>(Scenario.class);
+    private final Scenario[] weightedScenarios;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadDriver(Settings settings) throws JsonProcessingException {
+        this.settings = settings;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        List<Scenario> weighted = new ArrayList<>();
+        for (Map.Entry<Scenario, Integer> entry : settings.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                weighted.add(entry.getKey());
+            }
+            payloads.put(entry.getKey(), generatePayloads(entry.getKey()));
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Load mix must contain at least one scenario with positive weight");
+        }
+        this.weightedScenarios = weighted.toArray(new Scenario[0]);
+    }
+
+    /**
+     * Runs the warmup and measured periods, then waits for outstanding requests.
+     *
+     * @return Results of the measured period.
+     */
+    public LoadReport run() {
+        LoadReport report = new LoadReport(settings.requestsPerSecond(), settings.duration(), settings.mix().keySet());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / settings.requestsPerSecond();
+
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        double nextArrival = start;
+
+        while (nextArrival < end) {
+            long scheduled = (long) nextArrival;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            Scenario scenario = weightedScenarios[random.nextInt(weightedScenarios.length)];
+            if (inFlight.get() >= settings.maxInFlight()) {
+                if (measured) {
+                    report.recordDropped(scenario);
+                }
+            } else {
+                send(scenario, scheduled, measured ? report : null, random);
+            }
+            nextArrival += settings.poissonArrivals()
+                    ? -Math.log(1.0 - random.nextDouble()) * meanGapNanos
+                    : meanGapNanos;
+        }
+
+        awaitOutstanding(settings.requestTimeout().plusSeconds(5));
+        executor.shutdownNow();
+        return report;
+    }
+
+    private void send(Scenario scenario, long scheduledNanos, LoadReport report, ThreadLocalRandom random) {
+        List<byte[]> bodies = payloads.get(scenario);
+        HttpRequest request = HttpRequest.newBuilder(settings.target().resolve(scenario.path()))
+                .timeout(settings.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(bodies.get(random.nextInt(bodies.size()))))
+                .build();
+
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    inFlight.decrementAndGet();
+                    if (report == null) {
+                        return;
+                    }
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+                    if (failure != null) {
+                        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                                ? failure.getCause()
+                                : failure;
+                        report.recordFailure(scenario, latencyMicros, cause.getClass().getSimpleName());
+                    } else {
+                        report.recordResponse(scenario, latencyMicros, response.statusCode());
+                    }
+                });
+    }
+
+    private void awaitOutstanding(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    /**
+     * Pre-serializes request bodies so payload generation does not delay the arrival schedule.
+     */
+    private List<byte[]> generatePayloads(Scenario scenario) throws JsonProcessingException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<byte[]> bodies = new ArrayList<>(PAYLOADS_PER_SCENARIO);
+        for (int i = 0; i < PAYLOADS_PER_SCENARIO; i++) {
+            long userId = random.nextLong(settings.firstUserId(), settings.lastUserId() + 1);
+            CartRequest cart = randomCart(userId, random);
+            Object body = scenario == Scenario.ORDERS
+                    ? OrderRequest.builder().userId(userId).cartRequest(cart).build()
+                    : cart;
+            bodies.add(objectMapper.writeValueAsBytes(body));
+        }
+        return bodies;
+    }
+
+    private CartRequest randomCart(long userId, ThreadLocalRandom random) {
+        int lines = Math.max(1, random.nextInt(settings.itemsPerCart() * 2) + 1);
+        List<Item> items = new ArrayList<>(lines);
+        double total = 0.0;
+        for (int i = 0; i < lines; i++) {
+            Item item = Item.builder()
+                    .sku("SKU-" + random.nextInt(500))
+                    .name("Product")
+                    .quantity(1 + random.nextInt(3))
+                    .price(Math.round(random.nextDouble(1.0, 100.0) * 100) / 100.0)
+                    .build();
+            items.add(item);
+            total += item.getPrice() * item.getQuantity();
+        }
+        return CartRequest.builder()
+                .userId(userId)
+                .items(items)
+                .total(Math.round(total * 100) / 100.0)
+                .couponCodes(random.nextInt(10) == 0 ? List.of("WELCOME10") : List.of())
+                .build();
+    }
+}
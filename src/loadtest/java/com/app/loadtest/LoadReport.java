@@ -0,0 +1,96 @@
+package com.app.loadtest;
+
+import com.app.loadtest.LoadDriver.Scenario;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of the measured period of a load test, per scenario: latency percentiles of all answered
+ * requests, throughput of successful ones, and outcomes broken down by HTTP status or client error.
+ */
+public final class LoadReport {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final double targetRate;
+    private final Duration duration;
+    private final Map<Scenario, ScenarioResult> results = new EnumMap<>(Scenario.class);
+
+    LoadReport(double targetRate, Duration duration, Collection<Scenario> scenarios) {
+        this.targetRate = targetRate;
+        this.duration = duration;
+        for (Scenario scenario : scenarios) {
+            results.put(scenario, new ScenarioResult());
+        }
+    }
+
+    void recordResponse(Scenario scenario, long latencyMicros, int status) {
+        ScenarioResult result = results.get(scenario);
+        result.latency.recordMicros(latencyMicros);
+        if (status >= 200 && status < 300) {
+            result.successes.increment();
+        }
+        result.outcome("HTTP " + status).increment();
+    }
+
+    void recordFailure(Scenario scenario, long latencyMicros, String error) {
+        ScenarioResult result = results.get(scenario);
+        result.latency.recordMicros(latencyMicros);
+        result.outcome(error).increment();
+    }
+
+    void recordDropped(Scenario scenario) {
+        results.get(scenario).outcome("dropped (max in-flight)").increment();
+    }
+
+    /**
+     * Prints the report in a human-readable table.
+     *
+     * @param out Destination.
+     */
+    public void print(PrintStream out) {
+        double seconds = duration.toMillis() / 1000.0;
+        out.printf("%nTarget rate %.1f req/s over %.0f s%n", targetRate, seconds);
+        out.printf("%-8s %9s %10s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "ok req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        results.forEach((scenario, result) -> {
+            out.printf("%-8s %9d %10.1f", scenario.name().toLowerCase(), result.latency.count(),
+                    result.successes.sum() / seconds);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %9.1f", result.latency.percentileMicros(percentile) / 1000.0);
+            }
+            out.printf(" %9.1f%n", result.latency.maxMicros() / 1000.0);
+        });
+        out.println("Outcomes:");
+        results.forEach((scenario, result) -> new TreeMap<>(result.outcomes).forEach((outcome, count) ->
+                out.printf("  %-8s %-32s %d%n", scenario.name().toLowerCase(), outcome, count.sum())));
+    }
+
+    /**
+     * @return True if no request of the measured period failed, was rejected or was dropped.
+     */
+    public boolean allSucceeded() {
+        return results.values().stream().allMatch(result -> {
+            long total = result.outcomes.values().stream().mapToLong(LongAdder::sum).sum();
+            return total == result.successes.sum();
+        });
+    }
+
+    private static final class ScenarioResult {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder successes = new LongAdder();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        private LongAdder outcome(String outcome) {
+            return outcomes.computeIfAbsent(outcome, key -> new LongAdder());
+        }
+    }
+}
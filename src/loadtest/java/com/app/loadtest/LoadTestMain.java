@@ -0,0 +1,175 @@
+package com.app.loadtest;
+
+import com.app.AppApplication;
+import com.app.loadtest.LoadDriver.Scenario;
+import com.app.model.User;
+import com.app.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts a {@link TalonOneSimulator}, the application (in-process on H2
+ * unless <code>--target</code> points at a running instance) and drives open-model traffic against
+ * <code>POST /orders</code> and <code>POST /rewards/evaluate</code>.
+ * <p>
+ * Options (all <code>--name=value</code>):
+ * <pre>
+ * --rate=200                          target requests per second
+ * --warmup=10s --duration=60s         warmup and measured period
+ * --mix=orders:1,rewards:4            scenario weights
+ * --arrivals=poisson                  poisson | constant
+ * --items=5                           average cart lines
+ * --max-in-flight=10000               outstanding request cap
+ * --request-timeout=10s               client-side timeout
+ * --users=1000                        users seeded in-process (IDs 1..users)
+ * --target=http://host:8080           external application; requires --user-ids
+ * --user-ids=1-1000                   existing user IDs of the external application
+ * --simulator-port=0                  Talon.One simulator port
+ * --talonone-latency=lognormal:20:150 fixed:MS | uniform:MIN:MAX | lognormal:MEDIAN:P99
+ * --talonone-error-rate=0.0           fraction answered with 5xx
+ * --talonone-throttle-rate=0.0        fraction answered with 429
+ * --talonone-max-rps=0                simulator rate limit (0 = none)
+ * --talonone-retry-after=1            Retry-After seconds on 429
+ * --app.some.property=value           forwarded to the in-process application
+ * </pre>
+ * The process exits with status 1 when any measured request did not succeed.
+ * </p>
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Map<String, Object> appProperties = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("app.")) {
+                appProperties.put(name.substring(4), value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        SimulatorSettings simulatorSettings = new SimulatorSettings(
+                LatencyDistribution.parse(options.getOrDefault("talonone-latency", "lognormal:20:150")),
+                Double.parseDouble(options.getOrDefault("talonone-error-rate", "0.0")),
+                Double.parseDouble(options.getOrDefault("talonone-throttle-rate", "0.0")),
+                Integer.parseInt(options.getOrDefault("talonone-max-rps", "0")),
+                Integer.parseInt(options.getOrDefault("talonone-retry-after", "1")));
+
+        try (TalonOneSimulator simulator = TalonOneSimulator.start(simulatorSettings,
+                Integer.parseInt(options.getOrDefault("simulator-port", "0")))) {
+            System.out.println("Talon.One simulator listening on " + simulator.baseUrl());
+
+            ConfigurableApplicationContext context = null;
+            URI target;
+            long firstUserId;
+            long lastUserId;
+            if (options.containsKey("target")) {
+                target = URI.create(options.get("target"));
+                String[] userIds = options.getOrDefault("user-ids", "1-1").split("-");
+                firstUserId = Long.parseLong(userIds[0]);
+                lastUserId = Long.parseLong(userIds[userIds.length - 1]);
+            } else {
+                context = startApplication(simulator.baseUrl(), appProperties);
+                target = URI.create("http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port"));
+                int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+                long[] seeded = seedUsers(context.getBean(UserRepository.class), users);
+                firstUserId = seeded[0];
+                lastUserId = seeded[1];
+            }
+
+            try {
+                LoadDriver driver = new LoadDriver(new LoadDriver.Settings(
+                        target,
+                        Double.parseDouble(options.getOrDefault("rate", "200")),
+                        duration(options.getOrDefault("warmup", "10s")),
+                        duration(options.getOrDefault("duration", "60s")),
+                        parseMix(options.getOrDefault("mix", "orders:1,rewards:4")),
+                        !"constant".equalsIgnoreCase(options.getOrDefault("arrivals", "poisson")),
+                        firstUserId,
+                        lastUserId,
+                        Integer.parseInt(options.getOrDefault("items", "5")),
+                        Integer.parseInt(options.getOrDefault("max-in-flight", "10000")),
+                        duration(options.getOrDefault("request-timeout", "10s"))));
+                LoadReport report = driver.run();
+                report.print(System.out);
+                System.out.println("Talon.One simulator responses: " + simulator.responseCounts());
+                if (!report.allSucceeded()) {
+                    System.exit(1);
+                }
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String talonOneBaseUrl, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("talonone.base-url", talonOneBaseUrl);
+        properties.put("talonone.api-key", "loadtest");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+        return new SpringApplicationBuilder(AppApplication.class)
+                .properties(properties)
+                .logStartupInfo(false)
+                .run();
+    }
+
+    /**
+     * @return First and last ID of the seeded users.
+     */
+    private static long[] seedUsers(UserRepository userRepository, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .email("load-" + i + "@example.com")
+                    .name("Load User " + i)
+                    .loyaltyPoints(i % 500)
+                    .build());
+        }
+        List<User> saved = userRepository.saveAll(users);
+        long first = saved.stream().mapToLong(User::getId).min().orElse(1);
+        long last = saved.stream().mapToLong(User::getId).max().orElse(first);
+        return new long[]{first, last};
+    }
+
+    private static Map<Scenario, Integer> parseMix(String spec) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : spec.split(",")) {
+            String[] weight = part.trim().split(":");
+            int value = weight.length > 1 ? Integer.parseInt(weight[1]) : 1;
+            if (value > 0) {
+                mix.put(Scenario.valueOf(weight[0].toUpperCase(Locale.ROOT)), value);
+            }
+        }
+        return mix;
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+}
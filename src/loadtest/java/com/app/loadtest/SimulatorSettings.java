@@ -0,0 +1,24 @@
+package com.app.loadtest;
+
+/**
+ * Fault and latency profile of the {@link TalonOneSimulator}.
+ *
+ * @param latency              Latency injected before every non-throttled response.
+ * @param errorRate            Fraction (0..1) of requests answered with a 5xx error.
+ * @param throttleRate         Fraction (0..1) of requests answered with 429 regardless of load.
+ * @param maxRequestsPerSecond Rate limit across all endpoints, beyond which requests get 429; 0 disables it.
+ * @param retryAfterSeconds    Value of the <code>Retry-After</code> header on 429 responses.
+ */
+public record SimulatorSettings(LatencyDistribution latency,
+                                double errorRate,
+                                double throttleRate,
+                                int maxRequestsPerSecond,
+                                int retryAfterSeconds) {
+
+    /**
+     * Fast, healthy Talon.One: 5 ms fixed latency, no errors, no throttling.
+     */
+    public static SimulatorSettings healthy() {
+        return new SimulatorSettings(LatencyDistribution.fixed(5), 0.0, 0.0, 0, 1);
+    }
+}
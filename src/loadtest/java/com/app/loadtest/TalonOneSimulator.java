@@ -0,0 +1,208 @@
+package com.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process simulator of the Talon.One Integration API endpoints used by
+ * {@link com.app.talonone.TalonOneClient}, for load tests that must not consume Talon.One quota.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *   <li><code>PUT /v1/profiles/{id}</code>, <code>PUT /v1/profiles</code> - accept the profile(s), empty response</li>
+ *   <li><code>POST /v1/sessions</code> - evaluates the session: 10% off carts of 50 or more, 5 off
+ *       with coupon <code>WELCOME10</code>, one loyalty point per currency unit</li>
+ *   <li><code>POST /v1/loyalty/{id}/confirm</code> - accepts the confirmation, empty response</li>
+ *   <li><code>GET /v1/campaigns</code> - the campaigns matching the session rules above</li>
+ * </ul>
+ * Latency, error rate and throttling are injected according to {@link SimulatorSettings}; every
+ * response is counted per endpoint and status for the load test report.
+ * </p>
+ */
+public final class TalonOneSimulator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TalonOneSimulator.class);
+
+    private static final String CAMPAIGNS = """
+            [{"name":"TEN_PERCENT_OVER_50","type":"PERCENTAGE_DISCOUNT","value":10.0,"minimumTotal":50.0},
+             {"name":"WELCOME10","type":"FIXED_DISCOUNT","value":5.0,"couponCode":"WELCOME10"},
+             {"name":"POINTS_PER_UNIT","type":"LOYALTY_POINTS","value":1.0}]""";
+
+    private final SimulatorSettings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final AtomicLong rateWindowSecond = new AtomicLong();
+    private final LongAdder rateWindowCount = new LongAdder();
+    private final Map<String, Map<Integer, LongAdder>> responses = new ConcurrentHashMap<>();
+
+    private TalonOneSimulator(SimulatorSettings settings, int port) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/v1/profiles", exchange -> handle(exchange, "profiles", false));
+        server.createContext("/v1/sessions", exchange -> handle(exchange, "sessions", true));
+        server.createContext("/v1/loyalty/", exchange -> handle(exchange, "loyalty", false));
+        server.createContext("/v1/campaigns", exchange -> handle(exchange, "campaigns", false));
+        server.start();
+    }
+
+    /**
+     * Starts a simulator.
+     *
+     * @param settings Latency and fault profile.
+     * @param port     Local port, or 0 for a free one.
+     * @return The running simulator.
+     */
+    public static TalonOneSimulator start(SimulatorSettings settings, int port) throws IOException {
+        return new TalonOneSimulator(settings, port);
+    }
+
+    /**
+     * @return Base URL to configure as <code>talonone.base-url</code>.
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return Responses sent so far, by endpoint and HTTP status.
+     */
+    public Map<String, Map<Integer, Long>> responseCounts() {
+        Map<String, Map<Integer, Long>> snapshot = new TreeMap<>();
+        responses.forEach((endpoint, byStatus) -> {
+            Map<Integer, Long> counts = new TreeMap<>();
+            byStatus.forEach((status, count) -> counts.put(status, count.sum()));
+            snapshot.put(endpoint, counts);
+        });
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, boolean evaluatesSession) throws IOException {
+        try (exchange) {
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (isRateLimited() || random.nextDouble() < settings.throttleRate()) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(settings.retryAfterSeconds()));
+                send(exchange, endpoint, 429, null);
+                return;
+            }
+
+            sleepMicros(settings.latency().sampleMicros(random));
+
+            if (random.nextDouble() < settings.errorRate()) {
+                send(exchange, endpoint, random.nextBoolean() ? 500 : 503, null);
+            } else if (evaluatesSession) {
+                send(exchange, endpoint, 200, evaluateSession(requestBody));
+            } else if ("campaigns".equals(endpoint)) {
+                send(exchange, endpoint, 200, CAMPAIGNS.getBytes(StandardCharsets.UTF_8));
+            } else {
+                send(exchange, endpoint, 200, null);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Simulator failed to answer {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), ex);
+        }
+    }
+
+    private byte[] evaluateSession(byte[] requestBody) throws IOException {
+        JsonNode session = objectMapper.readTree(requestBody);
+        double total = session.path("total").asDouble();
+        boolean welcomeCoupon = false;
+        for (JsonNode couponCode : session.path("couponCodes")) {
+            welcomeCoupon |= "WELCOME10".equals(couponCode.asText());
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        double discount = 0.0;
+        ArrayNode appliedCampaigns = response.putArray("appliedCampaigns");
+        if (total >= 50.0) {
+            discount += total * 0.10;
+            appliedCampaigns.add("TEN_PERCENT_OVER_50");
+        }
+        if (welcomeCoupon && total > 0) {
+            discount += Math.min(5.0, total);
+            appliedCampaigns.add("WELCOME10");
+        }
+        appliedCampaigns.add("POINTS_PER_UNIT");
+        response.put("discount", Math.min(discount, Math.max(total, 0.0)));
+        response.put("loyaltyPointsUsed", 0);
+        response.put("loyaltyPointsEarned", (int) Math.floor(Math.max(total, 0.0)));
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Fixed one-second window counter across all endpoints.
+     */
+    private boolean isRateLimited() {
+        int limit = settings.maxRequestsPerSecond();
+        if (limit <= 0) {
+            return false;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long window = rateWindowSecond.get();
+        if (window != second && rateWindowSecond.compareAndSet(window, second)) {
+            rateWindowCount.reset();
+        }
+        rateWindowCount.increment();
+        return rateWindowCount.sum() > limit;
+    }
+
+    private void send(HttpExchange exchange, String endpoint, int status, byte[] body) throws IOException {
+        responses.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, key -> new LongAdder())
+                .increment();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleepMicros(long micros) {
+        if (micros <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.app.archive;
+
+import com.app.cache.TtlCache;
+import com.app.config.OrderArchiveProperties;
+import com.app.model.Item;
+import com.app.model.Order;
+import com.app.model.OrderSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage of orders moved out of the database by {@link com.app.service.OrderArchiver}.
+ * <p>
+ * Archived orders live in compressed, columnar {@link OrderSegment} files under
+ * <code>orders.archive.directory</code>, one or more per day of creation. The segment headers form an
+ * in-memory index by day and by user, so a lookup only decodes segments holding orders of the
+ * requested user; decoded columns are kept in the <code>orderSegmentCache</code>.
+ * </p>
+ *
+ * <p>
+ * Segments written by other instances sharing the directory are picked up when the directory
+ * changes. An order may be in the archive more than once (an archival transaction that failed after
+ * its segment was written is simply archived again); lookups return it once. {@link #compact(Duration)}
+ * merges each day's segments into one and drops such duplicates; a lookup that finds a segment
+ * compacted away by another instance rescans the directory and repeats once.
+ * </p>
+ *
+ * <p>
+ * While the directory does not exist (archiving never ran), lookups skip it without touching the
+ * file system and check for it again only every few seconds.
+ * </p>
+ */
+@Component
+public class OrderArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchive.class);
+
+    /**
+     * Order history order: newest first, ties broken by ID.
+     */
+    public static final Comparator<OrderSummary> NEWEST_FIRST = Comparator
+            .comparing(OrderSummary::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(OrderSummary::getId)
+            .reversed();
+
+    private static final Comparator<OrderSegment> NEWEST_SEGMENT_FIRST = Comparator
+            .comparing(OrderSegment::day)
+            .thenComparing(OrderSegment::newestCreatedAt)
+            .reversed();
+
+    private static final long MISSING_DIRECTORY_RECHECK_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final OrderArchiveProperties properties;
+    private final TtlCache<Path, OrderSegment.Columns> orderSegmentCache;
+    private final ReentrantLock scanLock = new ReentrantLock();
+
+    private volatile List<OrderSegment> segments = List.of();
+    private volatile long scannedModifiedMillis = Long.MIN_VALUE;
+    private volatile long scannedAtMillis;
+    private volatile boolean directoryMissing;
+    private volatile long directoryMissingCheckedAt;
+
+    public OrderArchive(OrderArchiveProperties properties, TtlCache<Path, OrderSegment.Columns> orderSegmentCache) {
+        this.properties = properties;
+        this.orderSegmentCache = orderSegmentCache;
+        segments();
+    }
+
+    /**
+     * @return Creation time of the newest archived order, or null if the archive is empty.
+     */
+    public LocalDateTime newestCreatedAt() {
+        List<OrderSegment> current = segments();
+        if (current.isEmpty()) {
+            return null;
+        }
+        LocalDate newestDay = current.get(0).day();
+        LocalDateTime newest = null;
+        for (OrderSegment segment : current) {
+            if (!segment.day().equals(newestDay)) {
+                break;
+            }
+            if (newest == null || segment.newestCreatedAt().isAfter(newest)) {
+                newest = segment.newestCreatedAt();
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * One page of a user's archived orders, newest first.
+     *
+     * @param userId          The ID of the user.
+     * @param beforeCreatedAt Creation time of the last order of the previous page, or null for the first page.
+     * @param beforeId        ID of the last order of the previous page, or null for the first page.
+     * @param limit           Maximum number of orders.
+     * @return The archived orders following the given position.
+     */
+    public List<OrderSummary> findHistory(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        return rescanningIfCompacted(() -> history(userId, beforeCreatedAt, beforeId, limit));
+    }
+
+    private List<OrderSummary> history(Long userId, LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        List<OrderSummary> found = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        LocalDate day = null;
+        for (OrderSegment segment : segments()) {
+            // Days are disjoint: once a full page is found, older days cannot contribute
+            if (found.size() >= limit && !segment.day().equals(day)) {
+                break;
+            }
+            day = segment.day();
+            if (beforeCreatedAt != null && segment.oldestCreatedAt().isAfter(beforeCreatedAt)) {
+                continue;
+            }
+            int user = segment.userIndex(userId);
+            if (user < 0) {
+                continue;
+            }
+            OrderSegment.Columns columns = columns(segment);
+            int matched = 0;
+            for (int row = segment.firstRow(user), end = row + segment.rowCount(user); row < end && matched < limit; row++) {
+                if ((beforeCreatedAt == null || isBefore(columns, row, beforeCreatedAt, beforeId))
+                        && seen.add(columns.orderId(row))) {
+                    found.add(columns.summary(row));
+                    matched++;
+                }
+            }
+        }
+        found.sort(NEWEST_FIRST);
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * Items of one archived order, provided it belongs to the user.
+     *
+     * @param userId  The ID of the user.
+     * @param orderId The ID of the order.
+     * @return The items ordered by ID, or an empty list if the user has no such archived order.
+     */
+    public List<Item> findItems(Long userId, Long orderId) {
+        return rescanningIfCompacted(() -> {
+            for (OrderSegment segment : segments()) {
+                int row = find(segment, userId, orderId);
+                if (row >= 0) {
+                    return columns(segment).items(row);
+                }
+            }
+            return List.of();
+        });
+    }
+
+    /**
+     * @return true if the archive holds the order and it belongs to the user.
+     */
+    public boolean contains(Long userId, Long orderId) {
+        return rescanningIfCompacted(() -> {
+            for (OrderSegment segment : segments()) {
+                if (find(segment, userId, orderId) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Writes the orders, with their items, to new segments, one per day of creation.
+     *
+     * @param orders The orders to archive.
+     * @return The written segments.
+     * @throws UncheckedIOException if a segment cannot be written; segments written so far are removed.
+     */
+    public List<OrderSegment> append(List<Order> orders) {
+        Map<LocalDate, List<Order>> byDay = orders.stream()
+                .collect(Collectors.groupingBy(order -> order.getCreatedAt().toLocalDate(), TreeMap::new, Collectors.toList()));
+        Path directory = properties.getDirectory();
+        List<OrderSegment> written = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            directoryMissing = false;
+            for (Map.Entry<LocalDate, List<Order>> day : byDay.entrySet()) {
+                written.add(OrderSegment.write(directory, segmentName(day.getKey()), day.getKey(), day.getValue()));
+            }
+        } catch (IOException ex) {
+            discard(written);
+            throw new UncheckedIOException("Cannot write order archive segment in " + directory, ex);
+        }
+        replace(List.of(), written);
+        return written;
+    }
+
+    /**
+     * Deletes segments whose orders were not removed from the database after all.
+     *
+     * @param discarded Segments returned by {@link #append(List)}.
+     */
+    public void discard(List<OrderSegment> discarded) {
+        replace(discarded, List.of());
+        delete(discarded);
+    }
+
+    /**
+     * Merges the segments of each day into a single segment, keeping every order once. Only segments
+     * written at least <code>minAge</code> ago take part, so segments of archival transactions still
+     * in progress (which may yet be discarded) are left alone.
+     *
+     * @param minAge Minimum time since a segment was written.
+     * @return Number of segments removed by merging.
+     * @throws UncheckedIOException if a merged segment cannot be written; the day's segments are kept.
+     */
+    public int compact(Duration minAge) {
+        long writtenBefore = System.currentTimeMillis() - minAge.toMillis();
+        Map<LocalDate, List<OrderSegment>> byDay = new TreeMap<>();
+        for (OrderSegment segment : segments()) {
+            try {
+                if (Files.getLastModifiedTime(segment.path()).toMillis() <= writtenBefore) {
+                    byDay.computeIfAbsent(segment.day(), day -> new ArrayList<>()).add(segment);
+                }
+            } catch (NoSuchFileException ex) {
+                // Compacted or discarded by another instance since the last scan
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot access order archive segment " + segment.path(), ex);
+            }
+        }
+        int removed = 0;
+        for (Map.Entry<LocalDate, List<OrderSegment>> day : byDay.entrySet()) {
+            List<OrderSegment> merged = day.getValue();
+            if (merged.size() < 2) {
+                continue;
+            }
+            OrderSegment compacted;
+            try {
+                Map<Long, Order> orders = new LinkedHashMap<>();
+                for (OrderSegment segment : merged) {
+                    for (Order order : segment.loadOrders()) {
+                        orders.putIfAbsent(order.getId(), order);
+                    }
+                }
+                compacted = OrderSegment.write(properties.getDirectory(), segmentName(day.getKey()), day.getKey(),
+                        new ArrayList<>(orders.values()));
+            } catch (NoSuchFileException ex) {
+                // Another instance is compacting the same day
+                continue;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot compact order archive segments of " + day.getKey(), ex);
+            }
+            replace(merged, List.of(compacted));
+            delete(merged);
+            removed += merged.size() - 1;
+        }
+        return removed;
+    }
+
+    /**
+     * @return Number of segments, as of the last directory scan.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * @return Number of archived orders, as of the last directory scan.
+     */
+    public long getOrderCount() {
+        long count = 0;
+        for (OrderSegment segment : segments) {
+            count += segment.rowCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return Total size of all segments in bytes, as of the last directory scan.
+     */
+    public long getSizeBytes() {
+        long size = 0;
+        for (OrderSegment segment : segments) {
+            size += segment.sizeBytes();
+        }
+        return size;
+    }
+
+    private int find(OrderSegment segment, Long userId, Long orderId) {
+        if (!segment.mayContain(orderId)) {
+            return -1;
+        }
+        int user = segment.userIndex(userId);
+        if (user < 0) {
+            return -1;
+        }
+        OrderSegment.Columns columns = columns(segment);
+        for (int row = segment.firstRow(user), end = row + segment.rowCount(user); row < end; row++) {
+            if (columns.orderId(row) == orderId) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBefore(OrderSegment.Columns columns, int row, LocalDateTime createdAt, Long id) {
+        LocalDateTime rowCreatedAt = columns.createdAt(row);
+        return rowCreatedAt.isBefore(createdAt) || (rowCreatedAt.equals(createdAt) && columns.orderId(row) < id);
+    }
+
+    private static String segmentName(LocalDate day) {
+        return "orders-" + day + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Removes and adds segments in the in-memory index, keeping it sorted newest day first. An added
+     * segment a concurrent scan already found replaces that entry.
+     */
+    private void replace(List<OrderSegment> removed, List<OrderSegment> added) {
+        Set<Path> removedPaths = new HashSet<>();
+        for (OrderSegment segment : removed) {
+            removedPaths.add(segment.path());
+        }
+        for (OrderSegment segment : added) {
+            removedPaths.add(segment.path());
+        }
+        scanLock.lock();
+        try {
+            List<OrderSegment> updated = new ArrayList<>(segments.size() + added.size());
+            for (OrderSegment segment : segments) {
+                if (!removedPaths.contains(segment.path())) {
+                    updated.add(segment);
+                }
+            }
+            updated.addAll(added);
+            updated.sort(NEWEST_SEGMENT_FIRST);
+            segments = List.copyOf(updated);
+        } finally {
+            scanLock.unlock();
+        }
+    }
+
+    private void delete(List<OrderSegment> deleted) {
+        for (OrderSegment segment : deleted) {
+            orderSegmentCache.invalidate(segment.path());
+            try {
+                Files.deleteIfExists(segment.path());
+            } catch (IOException ex) {
+                logger.warn("Cannot delete order archive segment {}; its orders stay archived twice", segment.path(), ex);
+            }
+        }
+    }
+
+    /**
+     * Runs a lookup; if one of its segments was deleted by another instance meanwhile (compaction),
+     * rescans the directory and runs it once more.
+     */
+    private <T> T rescanningIfCompacted(Supplier<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (UncheckedIOException ex) {
+            if (!(ex.getCause() instanceof NoSuchFileException)) {
+                throw ex;
+            }
+            scannedModifiedMillis = Long.MIN_VALUE;
+            return lookup.get();
+        }
+    }
+
+    private OrderSegment.Columns columns(OrderSegment segment) {
+        OrderSegment.Columns columns = orderSegmentCache.get(segment.path());
+        if (columns == null) {
+            try {
+                columns = segment.loadColumns();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read order archive segment " + segment.path(), ex);
+            }
+            orderSegmentCache.put(segment.path(), columns);
+        }
+        return columns;
+    }
+
+    /**
+     * The current segments, newest day first, rescanning the directory if it changed since the last scan.
+     */
+    private List<OrderSegment> segments() {
+        if (directoryMissing && System.nanoTime() - directoryMissingCheckedAt < MISSING_DIRECTORY_RECHECK_NANOS) {
+            return segments;
+        }
+        long modified;
+        try {
+            modified = Files.getLastModifiedTime(properties.getDirectory()).toMillis();
+            directoryMissing = false;
+        } catch (NoSuchFileException ex) {
+            directoryMissingCheckedAt = System.nanoTime();
+            directoryMissing = true;
+            return segments;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot access order archive " + properties.getDirectory(), ex);
+        }
+        // Modification times are coarse on some file systems: keep rescanning shortly after a change
+        if (modified != scannedModifiedMillis || modified >= scannedAtMillis - 1000) {
+            scan(modified);
+        }
+        return segments;
+    }
+
+    private void scan(long modified) {
+        Path directory = properties.getDirectory();
+        scanLock.lock();
+        try {
+            long startedAt = System.currentTimeMillis();
+            Map<Path, OrderSegment> known = new HashMap<>();
+            for (OrderSegment segment : segments) {
+                known.put(segment.path(), segment);
+            }
+            List<OrderSegment> found = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (!file.getFileName().toString().endsWith(OrderSegment.SUFFIX)) {
+                        continue;
+                    }
+                    OrderSegment segment = known.get(file);
+                    if (segment == null) {
+                        try {
+                            segment = OrderSegment.open(file);
+                        } catch (IOException ex) {
+                            logger.warn("Skipping unreadable order archive segment {}", file, ex);
+                            continue;
+                        }
+                    }
+                    found.add(segment);
+                }
+            }
+            found.sort(NEWEST_SEGMENT_FIRST);
+            segments = List.copyOf(found);
+            scannedModifiedMillis = modified;
+            scannedAtMillis = startedAt;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list order archive " + directory, ex);
+        } finally {
+            scanLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package com.app.archive;
+
+import com.app.model.CartPrice;
+import com.app.model.Item;
+import com.app.model.Order;
+import com.app.model.OrderSummary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One immutable file of archived orders, all created on the same day.
+ * <p>
+ * Rows are sorted by user, then newest first, and stored column by column: every column is encoded
+ * on its own (varint deltas for IDs and timestamps, minor units for amounts, dictionaries for
+ * strings) and Deflate-compressed, so history listings decode only the order columns and never the
+ * items. An uncompressed header holds the day, the ID and creation time range and the user index
+ * (row range per user); headers of all segments stay in memory, columns are loaded on demand.
+ * </p>
+ *
+ * <p>
+ * Segments are written to a temporary file, forced to disk and then atomically renamed, so a
+ * <code>.seg</code> file is always complete.
+ * </p>
+ */
+public final class OrderSegment {
+
+    static final String SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x4F534547; // "OSEG"
+    private static final int VERSION = 1;
+
+    // Columns in file order; the order columns precede the item columns
+    private static final int ORDER_ID = 0;
+    private static final int CREATED_AT = 1;
+    private static final int TOTAL = 2;
+    private static final int DISCOUNT = 3;
+    private static final int STATUS = 4;
+    private static final int ITEM_COUNT = 5;
+    private static final int ITEM_ID = 6;
+    private static final int ITEM_SKU = 7;
+    private static final int ITEM_NAME = 8;
+    private static final int ITEM_QUANTITY = 9;
+    private static final int ITEM_PRICE = 10;
+    private static final int COLUMN_COUNT = 11;
+
+    private static final Comparator<Order> ROW_ORDER = Comparator.comparing(Order::getUserId)
+            .thenComparing(Order::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Order::getId, Comparator.reverseOrder());
+
+    private final Path path;
+    private final LocalDate day;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final LocalDateTime oldestCreatedAt;
+    private final LocalDateTime newestCreatedAt;
+    private final long[] userIds;
+    private final int[] firstRows;
+    private final int[] userRowCounts;
+    private final long[] columnOffsets;
+
+    private OrderSegment(Path path, LocalDate day, int rowCount, long minId, long maxId,
+                         LocalDateTime oldestCreatedAt, LocalDateTime newestCreatedAt,
+                         long[] userIds, int[] firstRows, int[] userRowCounts, long[] columnOffsets) {
+        this.path = path;
+        this.day = day;
+        this.rowCount = rowCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.oldestCreatedAt = oldestCreatedAt;
+        this.newestCreatedAt = newestCreatedAt;
+        this.userIds = userIds;
+        this.firstRows = firstRows;
+        this.userRowCounts = userRowCounts;
+        this.columnOffsets = columnOffsets;
+    }
+
+    /**
+     * Writes the orders, with their items, to a new segment.
+     *
+     * @param directory Archive directory.
+     * @param name      File name without suffix; must be unique in the directory.
+     * @param day       The day all orders were created on.
+     * @param orders    The orders; must not be empty.
+     * @return The written segment.
+     * @throws IOException if the segment cannot be written.
+     */
+    static OrderSegment write(Path directory, String name, LocalDate day, List<Order> orders) throws IOException {
+        List<Order> rows = new ArrayList<>(orders);
+        rows.sort(ROW_ORDER);
+
+        ColumnWriter[] columns = new ColumnWriter[COLUMN_COUNT];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = new ColumnWriter();
+        }
+        long[] userIds = new long[rows.size()];
+        int[] firstRows = new int[rows.size()];
+        int[] userRowCounts = new int[rows.size()];
+        int userCount = 0;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long oldest = Long.MAX_VALUE;
+        long newest = Long.MIN_VALUE;
+        long previousId = 0;
+        long previousCreatedAt = 0;
+        long previousItemId = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            Order order = rows.get(row);
+            if (userCount == 0 || userIds[userCount - 1] != order.getUserId()) {
+                userIds[userCount] = order.getUserId();
+                firstRows[userCount] = row;
+                userCount++;
+            }
+            userRowCounts[userCount - 1]++;
+
+            long id = order.getId();
+            long createdAt = toMicros(order.getCreatedAt());
+            columns[ORDER_ID].writeSigned(id - previousId);
+            columns[CREATED_AT].writeSigned(createdAt - previousCreatedAt);
+            columns[TOTAL].writeSigned(CartPrice.toMinor(order.getTotal()));
+            columns[DISCOUNT].writeSigned(CartPrice.toMinor(order.getDiscount()));
+            columns[STATUS].writeString(order.getStatus());
+            previousId = id;
+            previousCreatedAt = createdAt;
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+            oldest = Math.min(oldest, createdAt);
+            newest = Math.max(newest, createdAt);
+
+            List<Item> items = order.getItems() != null ? new ArrayList<>(order.getItems()) : new ArrayList<>();
+            items.sort(Comparator.comparing(Item::getId));
+            columns[ITEM_COUNT].writeUnsigned(items.size());
+            for (Item item : items) {
+                columns[ITEM_ID].writeSigned(item.getId() - previousItemId);
+                columns[ITEM_SKU].writeString(item.getSku());
+                columns[ITEM_NAME].writeString(item.getName());
+                columns[ITEM_QUANTITY].writeSigned(item.getQuantity());
+                // Item prices are stored as submitted, not rounded to minor units
+                columns[ITEM_PRICE].writeDouble(item.getPrice());
+                previousItemId = item.getId();
+            }
+        }
+
+        byte[][] compressed = new byte[COLUMN_COUNT][];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            compressed[i] = columns[i].compress();
+        }
+
+        Path target = directory.resolve(name + SUFFIX);
+        Path temp = directory.resolve(name + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(day.toEpochDay());
+            out.writeInt(rows.size());
+            out.writeLong(minId);
+            out.writeLong(maxId);
+            out.writeLong(oldest);
+            out.writeLong(newest);
+            out.writeInt(userCount);
+            for (int user = 0; user < userCount; user++) {
+                out.writeLong(userIds[user]);
+                out.writeInt(firstRows[user]);
+                out.writeInt(userRowCounts[user]);
+            }
+            out.writeInt(COLUMN_COUNT);
+            for (byte[] column : compressed) {
+                out.writeInt(column.length);
+            }
+            for (byte[] column : compressed) {
+                out.write(column);
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return open(target);
+    }
+
+    /**
+     * Reads the header of a segment.
+     *
+     * @param path Segment file.
+     * @return The segment.
+     * @throws IOException if the file cannot be read or is not a segment.
+     */
+    static OrderSegment open(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an order archive segment: " + path);
+            }
+            LocalDate day = LocalDate.ofEpochDay(in.readLong());
+            int rowCount = in.readInt();
+            long minId = in.readLong();
+            long maxId = in.readLong();
+            LocalDateTime oldest = fromMicros(in.readLong());
+            LocalDateTime newest = fromMicros(in.readLong());
+            int userCount = in.readInt();
+            long[] userIds = new long[userCount];
+            int[] firstRows = new int[userCount];
+            int[] userRowCounts = new int[userCount];
+            for (int user = 0; user < userCount; user++) {
+                userIds[user] = in.readLong();
+                firstRows[user] = in.readInt();
+                userRowCounts[user] = in.readInt();
+            }
+            if (in.readInt() != COLUMN_COUNT) {
+                throw new IOException("Unexpected column count in order archive segment: " + path);
+            }
+            long[] columnOffsets = new long[COLUMN_COUNT + 1];
+            columnOffsets[0] = 56 + 16L * userCount + 4 + 4L * COLUMN_COUNT;
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                columnOffsets[i + 1] = columnOffsets[i] + in.readInt();
+            }
+            return new OrderSegment(path, day, rowCount, minId, maxId, oldest, newest,
+                    userIds, firstRows, userRowCounts, columnOffsets);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    LocalDate day() {
+        return day;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    long sizeBytes() {
+        return columnOffsets[COLUMN_COUNT];
+    }
+
+    LocalDateTime oldestCreatedAt() {
+        return oldestCreatedAt;
+    }
+
+    LocalDateTime newestCreatedAt() {
+        return newestCreatedAt;
+    }
+
+    boolean mayContain(long orderId) {
+        return orderId >= minId && orderId <= maxId;
+    }
+
+    /**
+     * @return Position of the user in the user index, or a negative value if the segment has no orders of the user.
+     */
+    int userIndex(long userId) {
+        return Arrays.binarySearch(userIds, userId);
+    }
+
+    int firstRow(int userIndex) {
+        return firstRows[userIndex];
+    }
+
+    int rowCount(int userIndex) {
+        return userRowCounts[userIndex];
+    }
+
+    /**
+     * Decodes the order columns; item columns are decoded on first access.
+     *
+     * @return The decoded columns.
+     * @throws IOException if the segment cannot be read.
+     */
+    Columns loadColumns() throws IOException {
+        byte[] bytes = read(ORDER_ID, ITEM_ID);
+        long[] ids = new long[rowCount];
+        long[] createdAt = new long[rowCount];
+        long[] totals = new long[rowCount];
+        long[] discounts = new long[rowCount];
+        String[] statuses = new String[rowCount];
+        int[] firstItems = new int[rowCount + 1];
+        try (ColumnReader reader = reader(bytes, ORDER_ID, ORDER_ID)) {
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                previous += reader.readSigned();
+                ids[row] = previous;
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ORDER_ID, CREATED_AT)) {
+            long previous = 0;
+            for (int row = 0; row < rowCount; row++) {
+                previous += reader.readSigned();
+                createdAt[row] = previous;
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ORDER_ID, TOTAL)) {
+            for (int row = 0; row < rowCount; row++) {
+                totals[row] = reader.readSigned();
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ORDER_ID, DISCOUNT)) {
+            for (int row = 0; row < rowCount; row++) {
+                discounts[row] = reader.readSigned();
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ORDER_ID, STATUS)) {
+            for (int row = 0; row < rowCount; row++) {
+                statuses[row] = reader.readString();
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ORDER_ID, ITEM_COUNT)) {
+            for (int row = 0; row < rowCount; row++) {
+                firstItems[row + 1] = firstItems[row] + (int) reader.readUnsigned();
+            }
+        }
+        return new Columns(this, ids, createdAt, totals, discounts, statuses, firstItems);
+    }
+
+    /**
+     * Decodes every row back into an order with its items, e.g. to merge segments.
+     *
+     * @return The orders, sorted by user.
+     * @throws IOException if the segment cannot be read.
+     */
+    List<Order> loadOrders() throws IOException {
+        Columns columns = loadColumns();
+        Item[] items = loadItems(columns.firstItems[rowCount]);
+        List<Order> orders = new ArrayList<>(rowCount);
+        for (int user = 0; user < userIds.length; user++) {
+            for (int row = firstRows[user], end = row + userRowCounts[user]; row < end; row++) {
+                orders.add(Order.builder()
+                        .id(columns.ids[row])
+                        .userId(userIds[user])
+                        .items(new ArrayList<>(Arrays.asList(items).subList(columns.firstItems[row], columns.firstItems[row + 1])))
+                        .total(CartPrice.toMajor(columns.totals[row]))
+                        .discount(CartPrice.toMajor(columns.discounts[row]))
+                        .status(columns.statuses[row])
+                        .createdAt(columns.createdAt(row))
+                        .build());
+            }
+        }
+        return orders;
+    }
+
+    private Item[] loadItems(int itemCount) throws IOException {
+        byte[] bytes = read(ITEM_ID, COLUMN_COUNT);
+        Item[] items = new Item[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            items[i] = new Item();
+        }
+        try (ColumnReader reader = reader(bytes, ITEM_ID, ITEM_ID)) {
+            long previous = 0;
+            for (Item item : items) {
+                previous += reader.readSigned();
+                item.setId(previous);
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ITEM_ID, ITEM_SKU)) {
+            for (Item item : items) {
+                item.setSku(reader.readString());
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ITEM_ID, ITEM_NAME)) {
+            for (Item item : items) {
+                item.setName(reader.readString());
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ITEM_ID, ITEM_QUANTITY)) {
+            for (Item item : items) {
+                item.setQuantity((int) reader.readSigned());
+            }
+        }
+        try (ColumnReader reader = reader(bytes, ITEM_ID, ITEM_PRICE)) {
+            for (Item item : items) {
+                item.setPrice(reader.readDouble());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Reads the compressed bytes of the columns <code>[fromColumn, toColumn)</code>.
+     */
+    private byte[] read(int fromColumn, int toColumn) throws IOException {
+        long start = columnOffsets[fromColumn];
+        ByteBuffer buffer = ByteBuffer.allocate((int) (columnOffsets[toColumn] - start));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new EOFException("Truncated order archive segment: " + path);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    private ColumnReader reader(byte[] bytes, int firstColumn, int column) throws IOException {
+        int offset = (int) (columnOffsets[column] - columnOffsets[firstColumn]);
+        int length = (int) (columnOffsets[column + 1] - columnOffsets[column]);
+        return new ColumnReader(bytes, offset, length);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Decoded columns of one segment, cached by {@link OrderArchive}. Item columns are decoded on the
+     * first item lookup, so listings never pay for them.
+     */
+    public static final class Columns {
+
+        private final OrderSegment segment;
+        private final long[] ids;
+        private final long[] createdAt;
+        private final long[] totals;
+        private final long[] discounts;
+        private final String[] statuses;
+        private final int[] firstItems;
+        private volatile Item[] items;
+
+        private Columns(OrderSegment segment, long[] ids, long[] createdAt, long[] totals, long[] discounts,
+                        String[] statuses, int[] firstItems) {
+            this.segment = segment;
+            this.ids = ids;
+            this.createdAt = createdAt;
+            this.totals = totals;
+            this.discounts = discounts;
+            this.statuses = statuses;
+            this.firstItems = firstItems;
+        }
+
+        long orderId(int row) {
+            return ids[row];
+        }
+
+        LocalDateTime createdAt(int row) {
+            return fromMicros(createdAt[row]);
+        }
+
+        OrderSummary summary(int row) {
+            return new OrderSummary(ids[row], CartPrice.toMajor(totals[row]), CartPrice.toMajor(discounts[row]),
+                    statuses[row], createdAt(row));
+        }
+
+        /**
+         * @return Fresh copies of the order's items, ordered by ID.
+         */
+        List<Item> items(int row) {
+            Item[] all = items;
+            if (all == null) {
+                try {
+                    all = segment.loadItems(firstItems[firstItems.length - 1]);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Cannot read order archive segment " + segment.path(), ex);
+                }
+                items = all;
+            }
+            List<Item> result = new ArrayList<>(firstItems[row + 1] - firstItems[row]);
+            for (int i = firstItems[row]; i < firstItems[row + 1]; i++) {
+                Item item = all[i];
+                result.add(new Item(item.getId(), item.getSku(), item.getName(), item.getQuantity(), item.getPrice()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Encodes one column: varints (zigzag for signed values), raw doubles, or dictionary indexes for
+     * strings, with the dictionary written in front of the values.
+     */
+    private static final class ColumnWriter {
+
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+
+        void writeUnsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                values.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            values.write((int) value);
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                values.write((int) (bits >>> shift));
+            }
+        }
+
+        void writeString(String value) {
+            // 0 encodes null
+            writeUnsigned(value == null ? 0 : dictionary.computeIfAbsent(value, ignored -> dictionary.size()) + 1);
+        }
+
+        byte[] compress() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try (DataOutputStream data = new DataOutputStream(new DeflaterOutputStream(out, deflater))) {
+                data.writeInt(dictionary.size());
+                for (String value : dictionary.keySet()) {
+                    data.writeUTF(value);
+                }
+                values.writeTo(data);
+            } finally {
+                deflater.end();
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Decodes one column written by {@link ColumnWriter}.
+     */
+    private static final class ColumnReader implements Closeable {
+
+        private final DataInputStream in;
+        private final String[] dictionary;
+
+        ColumnReader(byte[] bytes, int offset, int length) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(bytes, offset, length))));
+            this.dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+        }
+
+        long readUnsigned() throws IOException {
+            long value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.read();
+                if (b < 0) {
+                    throw new EOFException("Truncated order archive column");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        long readSigned() throws IOException {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double readDouble() throws IOException {
+            return in.readDouble();
+        }
+
+        String readString() throws IOException {
+            int index = (int) readUnsigned();
+            return index == 0 ? null : dictionary[index - 1];
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
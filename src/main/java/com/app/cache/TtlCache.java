@@ -0,0 +1,236 @@
+package com.app.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-process cache with per-entry time-to-live and least-recently-used eviction.
+ * <p>
+ * Entries expire {@code ttl} after they were written. When the cache is full, the least recently
+ * accessed entry is evicted. Hit, miss and eviction counts are tracked for monitoring.
+ * </p>
+ *
+ * <p>
+ * All map operations run under one lock; the counters can be read without locking. The lock is a
+ * {@link ReentrantLock} rather than the object monitor, so virtual threads waiting for it release
+ * their carrier thread instead of pinning it.
+ * </p>
+ *
+ * @param <K> Key type; must implement {@code equals}/{@code hashCode}.
+ * @param <V> Value type.
+ */
+public class TtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize Maximum number of entries kept.
+     * @param ttl     Time-to-live of each entry after it was written.
+     */
+    public TtlCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, or null if it is absent or expired.
+     *
+     * @param key The cache key.
+     * @return The cached value, or null.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a value, replacing any previous value for the key.
+     *
+     * @param key   The cache key.
+     * @param value The value to cache; null values are ignored.
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a value unless the key already has a live entry.
+     *
+     * @param key   The cache key.
+     * @param value The value to cache.
+     * @return The live value already cached for the key, or null if the given value was stored.
+     */
+    public V putIfAbsent(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        lock.lock();
+        try {
+            Entry<V> existing = entries.get(key);
+            if (existing != null && !existing.isExpired(System.nanoTime())) {
+                hits.increment();
+                return existing.value;
+            }
+            misses.increment();
+            entries.put(key, entry);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry for the key, if present.
+     *
+     * @param key The cache key.
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry for the key only if it still holds the given value.
+     *
+     * @param key   The cache key.
+     * @param value The value expected for the key.
+     */
+    public void invalidate(K key, V value) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.value.equals(value)) {
+                entries.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Current number of entries, including expired ones not yet purged.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Maximum number of entries kept.
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Number of lookups that found a live entry.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups that found no live entry.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of entries removed because of size limits or expiry.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Fraction of lookups served from the cache, or 0 if there were none.
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.app.config;
+
+import com.app.archive.OrderSegment;
+import com.app.cache.TtlCache;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.service.OrderIdempotency;
+import com.app.service.RewardsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the in-process caches.
+ * <p>
+ * Properties:
+ * <pre>
+ * rewards.cache.max-size=10000
+ * rewards.cache.ttl=60s
+ * users.cache.max-size=50000
+ * users.cache.ttl=30s
+ * orders.idempotency.max-size=10000
+ * orders.idempotency.ttl=24h
+ * datasource.read-replicas.read-your-writes-max-users=100000
+ * datasource.read-replicas.read-your-writes-window=5s
+ * orders.archive.cache.max-size=64
+ * orders.archive.cache.ttl=10m
+ * </pre>
+ * </p>
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache of reward evaluation previews, keyed by cart fingerprint and the user's invalidation generation.
+     *
+     * @param maxSize Maximum number of cached evaluations.
+     * @param ttl     How long an evaluation may be served from the cache.
+     * @return Rewards cache.
+     */
+    @Bean
+    public TtlCache<RewardsService.PreviewKey, RewardsResponse> rewardsCache(
+            @Value("${rewards.cache.max-size:10000}") int maxSize,
+            @Value("${rewards.cache.ttl:60s}") Duration ttl) {
+        return new TtlCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Read-through cache of users by ID, backing {@link com.app.service.UserService#getUserById(Long)}.
+     *
+     * @param maxSize Maximum number of cached users.
+     * @param ttl     How long a user may be served from the cache.
+     * @return User cache.
+     */
+    @Bean
+    public TtlCache<Long, User> userCache(
+            @Value("${users.cache.max-size:50000}") int maxSize,
+            @Value("${users.cache.ttl:30s}") Duration ttl) {
+        return new TtlCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Recent order placements by user-scoped idempotency key, backing {@link OrderIdempotency}.
+     *
+     * @param maxSize Maximum number of remembered keys.
+     * @param ttl     How long a key is remembered after its first use.
+     * @return Idempotency key store.
+     */
+    @Bean
+    public TtlCache<String, OrderIdempotency.Execution> idempotencyCache(
+            @Value("${orders.idempotency.max-size:10000}") int maxSize,
+            @Value("${orders.idempotency.ttl:24h}") Duration ttl) {
+        return new TtlCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Users who wrote recently, backing {@link com.app.service.ReadYourWrites}.
+     *
+     * @param maxSize Maximum number of remembered users.
+     * @param window  How long a user's reads stay on the primary after their write; should exceed the
+     *                replicas' usual replication lag.
+     * @return Recent writers.
+     */
+    @Bean
+    public TtlCache<Long, Boolean> recentWriters(
+            @Value("${datasource.read-replicas.read-your-writes-max-users:100000}") int maxSize,
+            @Value("${datasource.read-replicas.read-your-writes-window:5s}") Duration window) {
+        return new TtlCache<>(maxSize, window);
+    }
+
+    /**
+     * Decoded columns of recently read order archive segments, backing
+     * {@link com.app.archive.OrderArchive}.
+     *
+     * @param maxSize Maximum number of decoded segments held in memory.
+     * @param ttl     How long a segment stays decoded after it was read from disk.
+     * @return Segment cache.
+     */
+    @Bean
+    public TtlCache<Path, OrderSegment.Columns> orderSegmentCache(
+            @Value("${orders.archive.cache.max-size:64}") int maxSize,
+            @Value("${orders.archive.cache.ttl:10m}") Duration ttl) {
+        return new TtlCache<>(maxSize, ttl);
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the loyalty confirmation outbox.
+ * <p>
+ * Binds properties with prefix <code>loyalty.outbox</code> from application properties.
+ * The poll interval is read directly by the dispatcher's schedule
+ * (<code>loyalty.outbox.poll-interval-millis</code>).
+ * </p>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "loyalty.outbox")
+public class LoyaltyOutboxProperties {
+
+    /**
+     * Maximum number of entries claimed per batch.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Maximum number of concurrent Talon.One confirmations per batch.
+     */
+    private int concurrency = 8;
+
+    /**
+     * Attempts after which an entry is marked FAILED and no longer retried.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Delay before the first retry; doubled on each further attempt.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound of the retry delay.
+     */
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    /**
+     * How long a claimed entry is reserved for its dispatcher before another node may pick it up.
+     */
+    private Duration lease = Duration.ofSeconds(60);
+}
@@ -0,0 +1,219 @@
+package com.app.config;
+
+import com.app.archive.OrderArchive;
+import com.app.archive.OrderSegment;
+import com.app.cache.TtlCache;
+import com.app.model.RewardsResponse;
+import com.app.model.User;
+import com.app.service.LocalRewardsEngine;
+import com.app.service.LoyaltyOutboxDispatcher;
+import com.app.service.OrderArchiver;
+import com.app.service.OrderIdempotency;
+import com.app.service.ProfileSyncWorker;
+import com.app.service.RewardsService;
+import com.app.service.UserStatsAggregator;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneOperation;
+import com.app.talonone.TalonOneRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the application's internal counters to Micrometer, exposed through the actuator
+ * <code>/actuator/prometheus</code> and <code>/actuator/metrics</code> endpoints.
+ * <p>
+ * Talon.One call metrics are registered by {@link com.app.talonone.TalonOneResilience}, checkout
+ * phase timers by {@link com.app.service.CheckoutMetrics}; JVM, HikariCP, Tomcat and HTTP server
+ * metrics come from Spring Boot's auto-configuration.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Size, hit/miss and eviction counts of the in-process caches, tagged by <code>cache</code>.
+     *
+     * @param rewardsCache     Rewards preview cache.
+     * @param userCache        User cache.
+     * @param idempotencyCache Order idempotency key store; hits are replayed or joined placements.
+     * @param orderSegmentCache Decoded order archive segments.
+     * @return Cache metrics binder.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(TtlCache<RewardsService.PreviewKey, RewardsResponse> rewardsCache,
+                                    TtlCache<Long, User> userCache,
+                                    TtlCache<String, OrderIdempotency.Execution> idempotencyCache,
+                                    TtlCache<Path, OrderSegment.Columns> orderSegmentCache) {
+        return registry -> {
+            bindCache(registry, "rewards", rewardsCache);
+            bindCache(registry, "users", userCache);
+            bindCache(registry, "order-idempotency", idempotencyCache);
+            bindCache(registry, "order-archive-segments", orderSegmentCache);
+        };
+    }
+
+    /**
+     * Callers that shared an identical in-flight Talon.One call, per operation.
+     *
+     * @param talonOneClient Talon.One client.
+     * @return Coalescing metrics binder.
+     */
+    @Bean
+    public MeterBinder talonOneCoalescingMetrics(TalonOneClient talonOneClient) {
+        return registry -> {
+            for (TalonOneOperation operation : EnumSet.of(TalonOneOperation.PROFILE, TalonOneOperation.SESSION)) {
+                FunctionCounter.builder("talonone.coalesced", talonOneClient, client -> client.coalescedCount(operation))
+                        .tag("operation", operation.name())
+                        .description("Calls served by joining an identical in-flight Talon.One request")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Latency average and ejection state per Talon.One endpoint, tagged by <code>endpoint</code>.
+     *
+     * @param router Talon.One router.
+     * @return Endpoint metrics binder.
+     */
+    @Bean
+    public MeterBinder talonOneEndpointMetrics(TalonOneRouter router) {
+        return registry -> {
+            for (TalonOneRouter.Endpoint endpoint : router.endpoints()) {
+                TimeGauge.builder("talonone.endpoint.latency", endpoint, TimeUnit.NANOSECONDS, TalonOneRouter.Endpoint::latencyEwmaNanos)
+                        .tag("endpoint", endpoint.name())
+                        .description("Moving average of the endpoint's observed latency")
+                        .register(registry);
+                Gauge.builder("talonone.endpoint.ejected", endpoint, e -> e.isEjected() ? 1 : 0)
+                        .tag("endpoint", endpoint.name())
+                        .description("1 while the endpoint is ejected after consecutive failures")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Lag and throughput of the loyalty confirmation outbox.
+     *
+     * @param dispatcher Outbox dispatcher.
+     * @return Outbox metrics binder.
+     */
+    @Bean
+    public MeterBinder loyaltyOutboxMetrics(LoyaltyOutboxDispatcher dispatcher) {
+        return registry -> {
+            TimeGauge.builder("loyalty.outbox.lag", dispatcher, TimeUnit.MILLISECONDS, LoyaltyOutboxDispatcher::getLagMillis)
+                    .description("Age of the oldest pending loyalty confirmation")
+                    .register(registry);
+            FunctionCounter.builder("loyalty.outbox.dispatched", dispatcher, LoyaltyOutboxDispatcher::getConfirmedCount)
+                    .tag("result", "confirmed")
+                    .register(registry);
+            FunctionCounter.builder("loyalty.outbox.dispatched", dispatcher, LoyaltyOutboxDispatcher::getFailedCount)
+                    .tag("result", "failed")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Backlog and throughput of the background profile sync; freshness is timed by the worker itself.
+     *
+     * @param worker Profile sync worker.
+     * @return Profile sync metrics binder.
+     */
+    @Bean
+    public MeterBinder profileSyncMetrics(ProfileSyncWorker worker) {
+        return registry -> {
+            Gauge.builder("talonone.profile.sync.pending", worker, ProfileSyncWorker::pendingUsers)
+                    .description("Users with a profile change not yet synchronized to Talon.One")
+                    .register(registry);
+            TimeGauge.builder("talonone.profile.sync.lag", worker, TimeUnit.MILLISECONDS, ProfileSyncWorker::getOldestPendingMillis)
+                    .description("Age of the oldest profile change not yet synchronized to Talon.One")
+                    .register(registry);
+            FunctionCounter.builder("talonone.profile.sync", worker, ProfileSyncWorker::getSyncedCount)
+                    .tag("result", "synced")
+                    .register(registry);
+            FunctionCounter.builder("talonone.profile.sync", worker, ProfileSyncWorker::getFailedCount)
+                    .tag("result", "failed")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Users with unflushed write-behind stats.
+     *
+     * @param aggregator User stats aggregator.
+     * @return User stats metrics binder.
+     */
+    @Bean
+    public MeterBinder userStatsMetrics(UserStatsAggregator aggregator) {
+        return registry -> Gauge.builder("user.stats.pending", aggregator, UserStatsAggregator::pendingUsers)
+                .description("Users with stats deltas not yet flushed to the database")
+                .register(registry);
+    }
+
+    /**
+     * Size of the order archive and orders moved into it.
+     *
+     * @param archive  Order archive.
+     * @param archiver Order archiver.
+     * @return Order archive metrics binder.
+     */
+    @Bean
+    public MeterBinder orderArchiveMetrics(OrderArchive archive, OrderArchiver archiver) {
+        return registry -> {
+            Gauge.builder("orders.archive.orders", archive, OrderArchive::getOrderCount)
+                    .description("Orders held in the archive")
+                    .register(registry);
+            Gauge.builder("orders.archive.segments", archive, OrderArchive::getSegmentCount)
+                    .register(registry);
+            Gauge.builder("orders.archive.size", archive, OrderArchive::getSizeBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("orders.archived", archiver, OrderArchiver::getArchivedCount)
+                    .description("Orders moved from the database to the archive")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Shadow comparison volume and divergence of the local rewards engine.
+     *
+     * @param engine Local rewards engine.
+     * @return Local engine metrics binder.
+     */
+    @Bean
+    public MeterBinder localRewardsEngineMetrics(LocalRewardsEngine engine) {
+        return registry -> {
+            FunctionCounter.builder("rewards.local.shadow.comparisons", engine, LocalRewardsEngine::getShadowComparisons)
+                    .register(registry);
+            Gauge.builder("rewards.local.shadow.divergence", engine, LocalRewardsEngine::getShadowDivergenceRate)
+                    .description("Fraction of shadow comparisons that differed from Talon.One")
+                    .register(registry);
+        };
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, TtlCache<?, ?> cache) {
+        Gauge.builder("cache.size", cache, TtlCache::size)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, TtlCache::hitCount)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, TtlCache::missCount)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, TtlCache::evictionCount)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
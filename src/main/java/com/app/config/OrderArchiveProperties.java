@@ -0,0 +1,56 @@
+package com.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for archiving old orders out of the database.
+ * <p>
+ * Binds properties with prefix <code>orders.archive</code> from application properties.
+ * The archival interval is read directly by the archiver's schedule
+ * (<code>orders.archive.interval-millis</code>) and the segment cache settings by {@link CacheConfig}.
+ * </p>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "orders.archive")
+public class OrderArchiveProperties {
+
+    /**
+     * Moves old orders to the archive when true. Archived orders stay readable either way.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the archive segments. With several application instances it must be storage
+     * shared by all of them.
+     */
+    private Path directory = Path.of("data/order-archive");
+
+    /**
+     * Orders created longer ago than this are archived.
+     */
+    private Duration maxAge = Duration.ofDays(90);
+
+    /**
+     * Maximum number of orders moved per transaction.
+     */
+    private int batchSize = 5000;
+
+    /**
+     * Maximum number of batches per run; the rest of a backlog is left to the next runs.
+     */
+    private int maxBatchesPerRun = 20;
+
+    /**
+     * After archiving, segments of the same day written at least this long ago are merged into one.
+     * Must exceed the duration of an archival transaction, whose segments may still be discarded.
+     */
+    private Duration compactionMinAge = Duration.ofMinutes(10);
+}
@@ -0,0 +1,42 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Configuration for the reactive checkout mode.
+ * <p>
+ * The mode is switched on with <code>checkout.reactive.enabled=true</code>, which replaces the order and
+ * rewards controllers with variants returning {@link reactor.core.publisher.Mono}, so Talon.One calls
+ * never park a servlet thread. JPA remains blocking, so database work is shifted onto a dedicated
+ * scheduler sized to the connection pool rather than onto the shared Reactor schedulers.
+ * The scheduler creates its threads lazily and costs nothing while the mode is off.
+ * </p>
+ *
+ * <p>
+ * Properties:
+ * <pre>
+ * checkout.reactive.enabled=true
+ * checkout.reactive.jdbc-threads=10
+ * </pre>
+ * </p>
+ */
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Scheduler for blocking JPA work issued from the reactive pipeline.
+     * Its thread cap should match the datasource pool size so that callers queue in Reactor
+     * instead of blocking on connection acquisition.
+     *
+     * @param jdbcThreads Maximum number of threads running JPA work concurrently.
+     * @return Bounded elastic scheduler dedicated to database access.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${checkout.reactive.jdbc-threads:10}") int jdbcThreads) {
+        return Schedulers.newBoundedElastic(jdbcThreads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
+    }
+}
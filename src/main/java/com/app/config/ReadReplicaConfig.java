@@ -0,0 +1,97 @@
+package com.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Data source setup with read replicas (<code>datasource.read-replicas.enabled=true</code>).
+ * <p>
+ * Replaces Spring Boot's single data source: the primary is still built from
+ * <code>spring.datasource.*</code> (including <code>spring.datasource.hikari.*</code>), and the
+ * application data source routes read-only transactions to the replicas, see
+ * {@link ReplicaRoutingDataSource}. All writes, and every transaction not marked read-only, use the
+ * primary.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * Connection pool of the primary database.
+     *
+     * @param dataSourceProperties Injected <code>spring.datasource.*</code> settings.
+     * @return Primary pool.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Routing between the primary and the replica pools; closes the replica pools on shutdown.
+     *
+     * @param primaryDataSource Primary pool.
+     * @param properties        Injected ReadReplicaProperties.
+     * @return Routing data source.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadReplicaProperties properties) {
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, properties);
+        return routingDataSource;
+    }
+
+    /**
+     * The application data source used by JPA and JDBC. Connections are acquired lazily, so the
+     * routing sees whether the transaction is read-only.
+     *
+     * @param replicaRoutingDataSource Routing data source.
+     * @return Lazily connecting data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Last measured replication lag per replica (<code>db.replica.lag</code>, -1 while unknown or stale).
+     *
+     * @param replicaRoutingDataSource Routing data source.
+     * @return Replica metrics binder.
+     */
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.replicaNames().forEach(name ->
+                Gauge.builder("db.replica.lag", replicaRoutingDataSource, routing -> routing.lagMillis(name))
+                        .tag("replica", name)
+                        .baseUnit("milliseconds")
+                        .description("Replication lag of the replica as of the last check")
+                        .register(registry));
+    }
+
+    /**
+     * Refreshes the replicas' replication lag.
+     */
+    @Scheduled(fixedDelayString = "${datasource.read-replicas.lag-check-interval-millis:2000}")
+    public void checkReplicaLag() {
+        if (routingDataSource != null) {
+            routingDataSource.checkLag();
+        }
+    }
+}
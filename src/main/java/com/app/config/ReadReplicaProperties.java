@@ -0,0 +1,90 @@
+package com.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for routing read-only transactions to database read replicas.
+ * <p>
+ * Binds properties with prefix <code>datasource.read-replicas</code> from application properties.
+ * The primary stays configured under <code>spring.datasource.*</code>; the lag check interval is read
+ * directly by its schedule (<code>datasource.read-replicas.lag-check-interval-millis</code>) and the
+ * read-your-writes window by {@link CacheConfig}.
+ * </p>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Routes read-only transactions to the replicas when true; otherwise everything uses the primary.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The read replicas.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replicas lagging further behind the primary receive no reads.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * A lag measurement older than this counts as unknown, so a stuck lag check cannot keep a
+     * lagging replica in rotation. Should be a few lag check intervals.
+     */
+    private Duration maxMeasurementAge = Duration.ofSeconds(10);
+
+    /**
+     * Query returning a replica's replication lag in seconds. The default (PostgreSQL) reports 0 while
+     * the replica has replayed everything it received, so an idle primary does not look like lag.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    /**
+     * Maximum pool size of each replica's connection pool.
+     */
+    private int maximumPoolSize = 20;
+
+    /**
+     * One read replica.
+     * <p>
+     * Bound from <code>datasource.read-replicas.replicas[n].*</code>.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Replica {
+
+        /**
+         * Name used in logs and metrics.
+         */
+        private String name;
+
+        /**
+         * JDBC URL of the replica.
+         */
+        private String url;
+
+        /**
+         * Database user.
+         */
+        private String username;
+
+        /**
+         * Database password.
+         */
+        private String password;
+    }
+}
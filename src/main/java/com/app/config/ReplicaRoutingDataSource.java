@@ -0,0 +1,159 @@
+package com.app.config;
+
+import com.app.service.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections of read-only transactions to a read replica and everything else to the primary.
+ * <p>
+ * Replicas are picked round-robin among those whose last measured replication lag is within
+ * <code>datasource.read-replicas.max-lag</code>; replicas whose lag check failed or whose last
+ * measurement is older than <code>datasource.read-replicas.max-measurement-age</code> (the check is
+ * stuck) count as unknown, and with no eligible replica reads go to the primary. Reads that must
+ * see the user's own writes ({@link ReadYourWrites}) always use the primary.
+ * </p>
+ *
+ * <p>
+ * The routing key is evaluated when a physical connection is acquired, so this data source must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager has then already published the transaction's read-only flag.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long maxMeasurementAgeNanos;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, ReadReplicaProperties properties) {
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.maxMeasurementAgeNanos = properties.getMaxMeasurementAge().toNanos();
+        this.lagQuery = properties.getLagQuery();
+        List<Replica> configured = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReadReplicaProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + replica.getName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            configured.add(new Replica(replica.getName(), pool));
+            targets.put(replica.getName(), pool);
+        }
+        this.replicas = List.copyOf(configured);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        long now = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            long lag = lagMillis(replica, now);
+            if (lag >= 0 && lag <= maxLagMillis) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Measures the replication lag of every replica; a failed measurement takes the replica out of
+     * rotation until the next successful one.
+     */
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            long previous = lagMillis(replica, System.nanoTime());
+            long lagMillis;
+            try {
+                Double lagSeconds = new JdbcTemplate(replica.pool).queryForObject(lagQuery, Double.class);
+                lagMillis = lagSeconds != null ? Math.round(lagSeconds * 1000) : -1;
+                if (previous >= 0 && previous <= maxLagMillis && lagMillis > maxLagMillis) {
+                    logger.warn("Replica {} lags {} ms behind the primary, reading from other replicas", replica.name, lagMillis);
+                }
+            } catch (RuntimeException ex) {
+                lagMillis = -1;
+                if (previous >= 0) {
+                    logger.warn("Lag check of replica {} failed, reading from other replicas", replica.name, ex);
+                }
+            }
+            replica.measurement = new Measurement(lagMillis, System.nanoTime());
+        }
+    }
+
+    /**
+     * @return Names of the replicas.
+     */
+    public List<String> replicaNames() {
+        return replicas.stream().map(replica -> replica.name).toList();
+    }
+
+    /**
+     * @param name Replica name.
+     * @return Last measured lag of the replica in milliseconds, -1 if unknown or too old.
+     */
+    public long lagMillis(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return lagMillis(replica, System.nanoTime());
+            }
+        }
+        return -1;
+    }
+
+    private long lagMillis(Replica replica, long now) {
+        Measurement measurement = replica.measurement;
+        return now - measurement.measuredAtNanos() > maxMeasurementAgeNanos ? -1 : measurement.lagMillis();
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    /**
+     * Lag of a replica in milliseconds (-1 if the check failed) and when it was measured.
+     */
+    private record Measurement(long lagMillis, long measuredAtNanos) {
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        /** Unknown until the first lag check, so a replica receives no reads before it was measured. */
+        private volatile Measurement measurement = new Measurement(-1, System.nanoTime());
+
+        private Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+}
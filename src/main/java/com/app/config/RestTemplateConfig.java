@@ -1,16 +1,13 @@
 package com.app.config;
 
-import lombok.Getter;
-import lombok.Setter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.boot.context.properties.ConfigurationProperties;
+import com.app.talonone.TalonOneRequestLogger;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ReactorNettyClientRequestFactory;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
 
 import java.util.Collections;
 
@@ -20,7 +17,9 @@ import java.util.Collections;
  * <p>
  * This configuration injects the Talon.One API key securely from application properties,
  * attaches it as a Bearer token in the Authorization header for all outgoing requests,
- * and logs essential request details (HTTP method and URL) without exposing sensitive data.
+ * and logs a sample of request details (HTTP method and URL) without exposing sensitive data,
+ * see {@link TalonOneRequestLogger}.
+ * Requests go through the pooled Talon.One transport from {@link TalonOneTransportConfig}.
  * </p>
  *
  * <p>
@@ -36,36 +35,39 @@ import java.util.Collections;
 @Configuration
 public class RestTemplateConfig {
 
-    private static final Logger logger = LoggerFactory.getLogger("TalonOneRestTemplate");
-
     /**
      * Defines a singleton, thread-safe RestTemplate bean for Talon.One Integration API.
-     * The RestTemplate is configured with an interceptor that logs request details
+     * The RestTemplate is configured with an interceptor that logs sampled request details
      * and attaches the Authorization header with the API key.
      *
-     * @param talonOneProperties Injected TalonOneProperties containing API key and base URL.
+     * @param talonOneProperties    Injected TalonOneProperties containing API key and base URL.
+     * @param talonOneHttpClient    Shared, pooled Talon.One transport.
+     * @param talonOneRequestLogger Sampled, rate-limited request log.
      * @return Configured RestTemplate instance.
      */
     @Bean
     @Primary
-    public RestTemplate talonOneRestTemplate(TalonOneProperties talonOneProperties) {
-        RestTemplate restTemplate = new RestTemplate();
+    public RestTemplate talonOneRestTemplate(TalonOneProperties talonOneProperties, HttpClient talonOneHttpClient,
+                                             TalonOneRequestLogger talonOneRequestLogger) {
+        RestTemplate restTemplate = new RestTemplate(new ReactorNettyClientRequestFactory(talonOneHttpClient));
         restTemplate.setInterceptors(
-                Collections.singletonList(new TalonOneAuthLoggingInterceptor(talonOneProperties))
+                Collections.singletonList(new TalonOneAuthLoggingInterceptor(talonOneProperties, talonOneRequestLogger))
         );
         return restTemplate;
     }
 
     /**
      * ClientHttpRequestInterceptor implementation for logging and authentication.
-     * Logs HTTP method and URI, and attaches the Authorization header using the API key.
+     * Logs a sample of HTTP methods and URIs, and attaches the Authorization header using the API key.
      */
     private static class TalonOneAuthLoggingInterceptor implements ClientHttpRequestInterceptor {
 
         private final TalonOneProperties talonOneProperties;
+        private final TalonOneRequestLogger requestLogger;
 
-        public TalonOneAuthLoggingInterceptor(TalonOneProperties talonOneProperties) {
+        public TalonOneAuthLoggingInterceptor(TalonOneProperties talonOneProperties, TalonOneRequestLogger requestLogger) {
             this.talonOneProperties = talonOneProperties;
+            this.requestLogger = requestLogger;
         }
 
         @Override
@@ -74,36 +76,13 @@ public class RestTemplateConfig {
                 byte[] body,
                 org.springframework.http.client.ClientHttpRequestExecution execution
         ) throws java.io.IOException {
-            // Log HTTP method and URI (do not log headers or body)
-            logger.info("Talon.One API Request: {} {}", request.getMethod(), request.getURI());
+            // Log HTTP method and URI of sampled requests (do not log headers or body)
+            requestLogger.log(request.getMethod(), request.getURI());
 
-            // Attach Authorization header securely
-            request.getHeaders().setBearerAuth(talonOneProperties.getApiKey());
+            // Attach Authorization header securely, with the key of the endpoint being called
+            request.getHeaders().setBearerAuth(talonOneProperties.apiKeyFor(request.getURI()));
 
             return execution.execute(request, body);
         }
     }
 }
-
-/**
- * Configuration properties for Talon.One Integration API.
- * <p>
- * Binds properties with prefix <code>talonone</code> from application properties.
- * </p>
- */
-@Getter
-@Setter
-@Component
-@ConfigurationProperties(prefix = "talonone")
-class TalonOneProperties {
-
-    /**
-     * Talon.One Integration API key (injected securely from application properties).
-     */
-    private String apiKey;
-
-    /**
-     * Talon.One Integration API base URL.
-     */
-    private String baseUrl;
-}
@@ -0,0 +1,446 @@
+package com.app.config;
+
+import com.app.talonone.TalonOneOperation;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration properties for Talon.One Integration API.
+ * <p>
+ * Binds properties with prefix <code>talonone</code> from application properties.
+ * </p>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "talonone")
+public class TalonOneProperties {
+
+    /**
+     * Talon.One Integration API key (injected securely from application properties).
+     * Used when no <code>endpoints</code> are configured.
+     */
+    private String apiKey;
+
+    /**
+     * Talon.One Integration API base URL. Used when no <code>endpoints</code> are configured.
+     */
+    private String baseUrl;
+
+    /**
+     * Talon.One deployments to route between, e.g. one per region. When empty, the single
+     * <code>base-url</code>/<code>api-key</code> pair is used.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * Latency-aware routing and outlier ejection across the endpoints.
+     */
+    private Routing routing = new Routing();
+
+    /**
+     * Operations whose concurrent identical calls are coalesced into one in-flight Talon.One request.
+     */
+    private Set<TalonOneOperation> coalescedOperations = EnumSet.of(TalonOneOperation.PROFILE, TalonOneOperation.SESSION);
+
+    /**
+     * HTTP transport settings shared by the Talon.One RestTemplate and WebClient.
+     */
+    private Http http = new Http();
+
+    /**
+     * Circuit breaker, adaptive timeout and hedging settings applied per Talon.One operation.
+     */
+    private Resilience resilience = new Resilience();
+
+    /**
+     * Adaptive concurrency limits applied per Talon.One operation.
+     */
+    private Limiter limiter = new Limiter();
+
+    /**
+     * Sampling and rate limit of the outbound request log.
+     */
+    private Logging logging = new Logging();
+
+    /**
+     * Batching and freshness target of the background profile synchronization.
+     */
+    private ProfileSync profileSync = new ProfileSync();
+
+    /**
+     * @return The configured endpoints, or a single endpoint named <code>default</code> built from
+     *         <code>base-url</code> and <code>api-key</code>.
+     */
+    public List<Endpoint> resolvedEndpoints() {
+        if (!endpoints.isEmpty()) {
+            return endpoints;
+        }
+        Endpoint endpoint = new Endpoint();
+        endpoint.setName("default");
+        endpoint.setBaseUrl(baseUrl);
+        endpoint.setApiKey(apiKey);
+        return List.of(endpoint);
+    }
+
+    /**
+     * @return The API key of the endpoint the URI belongs to, or of the first endpoint if none matches.
+     */
+    public String apiKeyFor(URI uri) {
+        List<Endpoint> resolved = resolvedEndpoints();
+        String url = uri.toString();
+        for (Endpoint endpoint : resolved) {
+            if (endpoint.getBaseUrl() != null && url.startsWith(endpoint.getBaseUrl())) {
+                return endpoint.getApiKey();
+            }
+        }
+        return resolved.get(0).getApiKey();
+    }
+
+    /**
+     * One Talon.One deployment.
+     * <p>
+     * Bound from <code>talonone.endpoints[n].*</code>, e.g.
+     * <code>talonone.endpoints[0].base-url=https://eu.example.talon.one</code>.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        /**
+         * Name used in logs and metrics, e.g. the region.
+         */
+        private String name;
+
+        /**
+         * Integration API base URL of the deployment.
+         */
+        private String baseUrl;
+
+        /**
+         * Integration API key of the deployment.
+         */
+        private String apiKey;
+    }
+
+    /**
+     * Routing across Talon.One endpoints.
+     * <p>
+     * Bound from <code>talonone.routing.*</code>, e.g. <code>talonone.routing.consecutive-failures=5</code>.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Routing {
+
+        /**
+         * Weight (0..1) of the newest sample in the moving latency average.
+         */
+        private double ewmaWeight = 0.2;
+
+        /**
+         * Fraction (0..1) of calls not tied to a user, and of user calls before users are assigned,
+         * that go to a random other healthy endpoint, so the latency averages of endpoints that are
+         * not the fastest keep getting samples.
+         */
+        private double probeRatio = 0.05;
+
+        /**
+         * Samples every endpoint needs before users are assigned to endpoints.
+         */
+        private int minSamples = 10;
+
+        /**
+         * Consecutive failures after which an endpoint is ejected.
+         */
+        private int consecutiveFailures = 5;
+
+        /**
+         * Ejection time of a first ejection; repeated ejections last a multiple of it.
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        /**
+         * Upper bound of an ejection.
+         */
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of user-to-endpoint assignments kept; the least recently routed users are
+         * forgotten first and assigned again on their next call.
+         */
+        private int maxStickyUsers = 100_000;
+    }
+
+    /**
+     * Connection pool, protocol and timeout settings for outbound Talon.One traffic.
+     * <p>
+     * Bound from <code>talonone.http.*</code>, e.g. <code>talonone.http.max-connections=200</code>.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Http {
+
+        /**
+         * Maximum number of connections (HTTP/2: multiplexed connections) kept per Talon.One host.
+         */
+        private int maxConnections = 200;
+
+        /**
+         * Maximum number of requests allowed to wait for a free connection.
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * How long a request may wait for a free connection before failing.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Idle time after which a pooled connection is closed.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Maximum lifetime of a pooled connection, so DNS changes are eventually picked up.
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * Interval of the background task evicting idle and expired connections.
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * TCP connect timeout.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Maximum inactivity between two reads of the same response.
+         */
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Maximum time from sending the request until the response headers arrive.
+         */
+        private Duration responseTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Negotiates HTTP/2 over TLS (ALPN) when Talon.One supports it, falling back to HTTP/1.1.
+         */
+        private boolean http2Enabled = true;
+
+        /**
+         * Largest response body the WebClient buffers in memory, e.g. a session evaluation with many
+         * effects. Larger responses fail instead of being truncated.
+         */
+        private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+    }
+
+    /**
+     * Resilience settings for outbound Talon.One calls.
+     * <p>
+     * Bound from <code>talonone.resilience.*</code>, e.g. <code>talonone.resilience.open-duration=10s</code>.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        /**
+         * Number of recent calls the circuit breaker failure rate is computed over.
+         */
+        private int slidingWindowSize = 50;
+
+        /**
+         * Calls required in the window before the breaker may open.
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * Failure rate (0..1) at which the breaker opens.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * How long an open breaker rejects calls before letting trial calls through.
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Number of trial calls that must succeed to close a half-open breaker.
+         */
+        private int halfOpenCalls = 5;
+
+        /**
+         * Number of recent successful call latencies kept per operation.
+         */
+        private int latencyWindowSize = 1024;
+
+        /**
+         * Samples required before timeouts and hedge delays are derived from observed latency.
+         */
+        private int minLatencySamples = 100;
+
+        /**
+         * The per-attempt timeout is this multiple of the observed p99 latency.
+         */
+        private double timeoutMultiplier = 2.0;
+
+        /**
+         * Lower bound of the adaptive timeout.
+         */
+        private Duration minTimeout = Duration.ofMillis(200);
+
+        /**
+         * Upper bound of the adaptive timeout; also used until enough samples were observed.
+         */
+        private Duration maxTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Operations that are idempotent and may be hedged after the observed p95 latency.
+         */
+        private Set<TalonOneOperation> hedgedOperations = EnumSet.of(TalonOneOperation.PROFILE, TalonOneOperation.SESSION);
+
+        /**
+         * Maximum ratio of hedged attempts to calls, so hedging cannot double the load during an outage.
+         */
+        private double hedgeBudget = 0.1;
+    }
+
+    /**
+     * Adaptive (AIMD) concurrency limiting of outbound Talon.One calls, with a separate limit and queue
+     * per operation.
+     * <p>
+     * Bound from <code>talonone.limiter.*</code>, e.g. <code>talonone.limiter.max-limits.SESSION=150</code>.
+     * Keep the sum of the maximum limits within <code>talonone.http.max-connections</code>, so that no
+     * operation can take the connections another one needs.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Limiter {
+
+        /**
+         * Concurrency limit each operation starts with.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Lower bound of the limit.
+         */
+        private int minLimit = 1;
+
+        /**
+         * Upper bound of the limit, unless overridden per operation in <code>max-limits</code>.
+         */
+        private int maxLimit = 100;
+
+        /**
+         * Upper bound of the limit per operation.
+         */
+        private Map<TalonOneOperation, Integer> maxLimits = new EnumMap<>(Map.of(
+                TalonOneOperation.SESSION, 120,
+                TalonOneOperation.LOYALTY, 40,
+                TalonOneOperation.PROFILE, 30,
+                TalonOneOperation.CAMPAIGNS, 10));
+
+        /**
+         * Factor the limit is multiplied with when Talon.One throttles (429) or a call times out.
+         */
+        private double backoffRatio = 0.7;
+
+        /**
+         * Maximum number of calls waiting for a permit per operation; further calls are rejected.
+         */
+        private int maxQueueSize = 1000;
+
+        /**
+         * Maximum time a call waits for a permit before it is rejected.
+         */
+        private Duration maxQueueTime = Duration.ofSeconds(1);
+
+        /**
+         * Upper bound of a pause requested by a <code>Retry-After</code> header.
+         */
+        private Duration maxRetryAfter = Duration.ofSeconds(30);
+
+        /**
+         * @return The maximum limit of the operation.
+         */
+        public int maxLimitOf(TalonOneOperation operation) {
+            return maxLimits.getOrDefault(operation, maxLimit);
+        }
+    }
+
+    /**
+     * Outbound request logging.
+     * <p>
+     * Bound from <code>talonone.logging.*</code>, e.g. <code>talonone.logging.sample-rate=0.01</code>.
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class Logging {
+
+        /**
+         * Fraction (0..1) of Talon.One requests that are logged.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Upper bound of logged requests per second, regardless of the sample rate.
+         */
+        private int maxPerSecond = 10;
+    }
+
+    /**
+     * Background profile synchronization.
+     * <p>
+     * Bound from <code>talonone.profile-sync.*</code>, e.g. <code>talonone.profile-sync.batch-size=100</code>.
+     * The sync interval is read directly by the worker's schedule
+     * (<code>talonone.profile-sync.interval-millis</code>).
+     * </p>
+     */
+    @Getter
+    @Setter
+    public static class ProfileSync {
+
+        /**
+         * Maximum number of profiles sent in one bulk update.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Maximum number of concurrent bulk updates.
+         */
+        private int concurrency = 4;
+
+        /**
+         * Maximum number of rounds per sync; a larger backlog is left to the next syncs, so one sync
+         * never holds a scheduler thread for long.
+         */
+        private int maxRoundsPerSync = 10;
+
+        /**
+         * Target time from a profile change until Talon.One has it; published as a service level
+         * objective of the freshness timer.
+         */
+        private Duration freshnessSla = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,112 @@
+package com.app.config;
+
+import com.app.talonone.TalonOneRequestLogger;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the HTTP transport shared by all Talon.One traffic.
+ * <p>
+ * A single Reactor Netty {@link HttpClient} backed by a bounded, per-host connection pool is used
+ * both by the {@link WebClient} in {@link com.app.talonone.TalonOneClient} and by the
+ * {@link org.springframework.web.client.RestTemplate} from {@link RestTemplateConfig}, so both reuse
+ * the same warm TLS connections instead of paying a handshake per request.
+ * </p>
+ *
+ * <p>
+ * All settings live under <code>talonone.http.*</code>, see {@link TalonOneProperties.Http}.
+ * </p>
+ */
+@Configuration
+public class TalonOneTransportConfig {
+
+    /**
+     * Connection pool for Talon.One hosts. Limits apply per remote address. Pool metrics
+     * (<code>reactor.netty.connection.provider.*</code>: active, idle, pending connections) are
+     * published to Micrometer to expose pool saturation.
+     *
+     * @param talonOneProperties Injected TalonOneProperties containing the pool settings.
+     * @return Pooled connection provider, disposed on shutdown.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider talonOneConnectionProvider(TalonOneProperties talonOneProperties) {
+        TalonOneProperties.Http http = talonOneProperties.getHttp();
+        return ConnectionProvider.builder("talonone")
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Reactor Netty client with keep-alive, timeouts and, when enabled, HTTP/2 negotiation.
+     *
+     * @param talonOneProperties  Injected TalonOneProperties containing the transport settings.
+     * @param connectionProvider  Pool shared by every Talon.One request.
+     * @return Configured HttpClient.
+     */
+    @Bean
+    public HttpClient talonOneHttpClient(TalonOneProperties talonOneProperties, ConnectionProvider connectionProvider) {
+        TalonOneProperties.Http http = talonOneProperties.getHttp();
+        long readTimeoutMillis = http.getReadTimeout().toMillis();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .responseTimeout(http.getResponseTimeout())
+                // Per-request handler: removed again when the connection returns to the pool
+                .doOnRequest((request, connection) ->
+                        connection.addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)));
+
+        boolean secure = talonOneProperties.resolvedEndpoints().stream()
+                .allMatch(endpoint -> endpoint.getBaseUrl() != null && endpoint.getBaseUrl().startsWith("https"));
+        if (http.isHttp2Enabled() && secure) {
+            httpClient = httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+
+    /**
+     * WebClient for the Talon.One Integration API, bound to the shared HttpClient. Requests carry
+     * absolute URLs and the API key of the endpoint picked by {@link com.app.talonone.TalonOneRouter}.
+     * Response bodies are buffered up to <code>talonone.http.max-in-memory-size</code> instead of
+     * the codecs' 256 KB default.
+     *
+     * @param talonOneProperties    Injected TalonOneProperties containing the transport settings.
+     * @param httpClient            Shared Talon.One transport.
+     * @param talonOneRequestLogger Sampled, rate-limited request log.
+     * @return Configured WebClient instance.
+     */
+    @Bean
+    public WebClient talonOneWebClient(TalonOneProperties talonOneProperties, HttpClient httpClient,
+                                       TalonOneRequestLogger talonOneRequestLogger) {
+        int maxInMemorySize = (int) talonOneProperties.getHttp().getMaxInMemorySize().toBytes();
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .filter(ExchangeFilterFunction.ofRequestProcessor(request -> {
+                    talonOneRequestLogger.log(request.method(), request.url());
+                    return Mono.just(request);
+                }))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+}
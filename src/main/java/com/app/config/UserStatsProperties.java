@@ -0,0 +1,36 @@
+package com.app.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the write-behind aggregation of user order statistics.
+ * <p>
+ * Binds properties with prefix <code>user-stats</code> from application properties.
+ * The flush interval is read directly by the aggregator's schedule
+ * (<code>user-stats.flush-interval-millis</code>).
+ * </p>
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "user-stats")
+public class UserStatsProperties {
+
+    /**
+     * Number of independently locked stripes the per-user deltas are spread over.
+     */
+    private int stripes = 64;
+
+    /**
+     * Maximum number of UPDATE statements per JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * File receiving deltas that could not be flushed at shutdown; replayed on the next start.
+     */
+    private String journalPath = "data/user-stats-journal.csv";
+}
@@ -0,0 +1,25 @@
+package com.app.controller;
+
+import com.app.service.CartPricer.CartPricingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps request-caused exceptions thrown anywhere below the controllers to HTTP responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * A cart whose amounts cannot be priced in minor units (see {@link com.app.service.CartPricer})
+     * is a bad request, not a server error.
+     */
+    @ExceptionHandler(CartPricingException.class)
+    public ResponseEntity<ProblemDetail> handleCartPricingException(CartPricingException ex) {
+        return ResponseEntity.badRequest()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+}
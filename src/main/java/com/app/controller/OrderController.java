@@ -1,44 +1,77 @@
 package com.app.controller;
 
 import com.app.model.Order;
+import com.app.model.OrderBatchRequest;
+import com.app.model.OrderBatchResult;
 import com.app.model.OrderRequest;
 import com.app.model.RewardsResponse;
+import com.app.service.OrderIdempotency;
+import com.app.service.OrderIdempotency.IdempotencyKeyReusedException;
 import com.app.service.OrderService;
 import com.app.service.RewardsService;
-import com.app.service.UserService;
 import jakarta.validation.Valid;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 /**
  * OrderController handles order-related endpoints.
+ * Active unless the reactive checkout mode is enabled, see {@link ReactiveOrderController}.
  */
 @RestController
 @RequestMapping("/orders")
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "checkout.reactive.enabled", havingValue = "false", matchIfMissing = true)
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
     private final RewardsService rewardsService;
-    private final UserService userService;
+    private final OrderIdempotency orderIdempotency;
 
     /**
      * Place an order, evaluate rewards, save order, and update user.
+     * With an <code>Idempotency-Key</code> header, retries of the same order replay the first
+     * placement instead of running it again (422 if the key was used for a different order).
      * POST /orders
      */
     @PostMapping
-    public ResponseEntity<Order> placeOrder(@Valid @RequestBody OrderRequest orderRequest) {
-        // Evaluate rewards for the order/cart
-        RewardsResponse rewards = rewardsService.evaluateRewards(orderRequest.getCartRequest());
+    public ResponseEntity<Order> placeOrder(@RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                            @Valid @RequestBody OrderRequest orderRequest) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(placeOrder(orderRequest));
+        }
+        try {
+            Order savedOrder = orderIdempotency.execute(idempotencyKey, orderRequest,
+                            () -> Mono.fromCallable(() -> placeOrder(orderRequest)))
+                    .block();
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
+        } catch (IdempotencyKeyReusedException ex) {
+            return ResponseEntity.unprocessableEntity().build();
+        }
+    }
 
-        // Save the order
-        Order savedOrder = orderService.saveOrder(orderRequest, rewards);
+    /**
+     * Bulk-ingest already priced orders (e.g. marketplace or POS imports), without reward evaluation.
+     * POST /orders/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderBatchResult>> placeOrdersBatch(@Valid @RequestBody OrderBatchRequest batchRequest) {
+        List<OrderBatchResult> results = orderService.saveOrdersBatch(batchRequest.getOrders());
+        return ResponseEntity.ok(results);
+    }
 
-        // Update user stats (e.g., totalOrders, totalSpent)
-        userService.updateUserStatsAfterOrder(savedOrder);
+    private Order placeOrder(OrderRequest orderRequest) {
+        // Evaluate rewards for the order/cart
+        RewardsResponse rewards = rewardsService.evaluateRewards(orderRequest.getCartRequest());
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
+        // Save the order (also updates user stats, e.g. totalOrders and totalSpent)
+        return orderService.saveOrder(orderRequest, rewards);
     }
 }
@@ -0,0 +1,60 @@
+package com.app.controller;
+
+import com.app.model.Order;
+import com.app.model.OrderBatchRequest;
+import com.app.model.OrderBatchResult;
+import com.app.model.OrderRequest;
+import com.app.service.OrderIdempotency;
+import com.app.service.OrderIdempotency.IdempotencyKeyReusedException;
+import com.app.service.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ReactiveOrderController handles order-related endpoints in the reactive checkout mode
+ * (<code>checkout.reactive.enabled=true</code>). The servlet thread is released while
+ * Talon.One is being called.
+ */
+@RestController
+@RequestMapping("/orders")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "checkout.reactive.enabled", havingValue = "true")
+public class ReactiveOrderController {
+
+    private final OrderService orderService;
+    private final OrderIdempotency orderIdempotency;
+
+    /**
+     * Place an order, evaluate rewards, save order, and update user.
+     * With an <code>Idempotency-Key</code> header, retries of the same order replay the first
+     * placement instead of running it again (422 if the key was used for a different order).
+     * POST /orders
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Order>> placeOrder(@RequestHeader(name = OrderController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                  @Valid @RequestBody OrderRequest orderRequest) {
+        Mono<Order> placement = idempotencyKey == null || idempotencyKey.isBlank()
+                ? orderService.placeOrderReactive(orderRequest)
+                : orderIdempotency.execute(idempotencyKey, orderRequest, () -> orderService.placeOrderReactive(orderRequest));
+        return placement
+                .map(savedOrder -> ResponseEntity.status(HttpStatus.CREATED).body(savedOrder))
+                .onErrorResume(IdempotencyKeyReusedException.class, ex -> Mono.just(ResponseEntity.unprocessableEntity().build()));
+    }
+
+    /**
+     * Bulk-ingest already priced orders (e.g. marketplace or POS imports), without reward evaluation.
+     * POST /orders/batch
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<OrderBatchResult>>> placeOrdersBatch(@Valid @RequestBody OrderBatchRequest batchRequest) {
+        return orderService.saveOrdersBatchReactive(batchRequest.getOrders())
+                .map(ResponseEntity::ok);
+    }
+}
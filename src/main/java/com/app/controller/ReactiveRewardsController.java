@@ -0,0 +1,49 @@
+package com.app.controller;
+
+import com.app.model.CartRequest;
+import com.app.model.RewardsBatchRequest;
+import com.app.model.RewardsBatchResult;
+import com.app.model.RewardsResponse;
+import com.app.service.RewardsService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ReactiveRewardsController handles reward evaluation endpoints in the reactive checkout mode
+ * (<code>checkout.reactive.enabled=true</code>).
+ */
+@RestController
+@RequestMapping("/rewards")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "checkout.reactive.enabled", havingValue = "true")
+public class ReactiveRewardsController {
+
+    private final RewardsService rewardsService;
+
+    /**
+     * Evaluate rewards for a given cart.
+     * POST /rewards/evaluate
+     */
+    @PostMapping("/evaluate")
+    public Mono<ResponseEntity<RewardsResponse>> evaluateRewards(@Valid @RequestBody CartRequest cartRequest) {
+        return rewardsService.previewRewardsReactive(cartRequest)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Evaluate rewards for several carts at once; carts that time out or fail are reported per cart.
+     * POST /rewards/evaluate/batch
+     */
+    @PostMapping("/evaluate/batch")
+    public Mono<ResponseEntity<List<RewardsBatchResult>>> evaluateRewardsBatch(
+            @Valid @RequestBody RewardsBatchRequest batchRequest) {
+        return rewardsService.previewRewardsBatch(batchRequest.getCarts())
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,19 +1,27 @@
 package com.app.controller;
 
 import com.app.model.CartRequest;
+import com.app.model.RewardsBatchRequest;
+import com.app.model.RewardsBatchResult;
 import com.app.model.RewardsResponse;
 import com.app.service.RewardsService;
 import jakarta.validation.Valid;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 /**
  * RewardsController handles reward evaluation endpoints.
+ * Active unless the reactive checkout mode is enabled, see {@link ReactiveRewardsController}.
  */
 @RestController
 @RequestMapping("/rewards")
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "checkout.reactive.enabled", havingValue = "false", matchIfMissing = true)
 public class RewardsController {
 
     private final RewardsService rewardsService;
@@ -24,7 +32,18 @@ public class RewardsController {
      */
     @PostMapping("/evaluate")
     public ResponseEntity<RewardsResponse> evaluateRewards(@Valid @RequestBody CartRequest cartRequest) {
-        RewardsResponse response = rewardsService.evaluateRewards(cartRequest);
+        RewardsResponse response = rewardsService.previewRewards(cartRequest);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Evaluate rewards for several carts at once; carts that time out or fail are reported per cart.
+     * POST /rewards/evaluate/batch
+     */
+    @PostMapping("/evaluate/batch")
+    public Mono<ResponseEntity<List<RewardsBatchResult>>> evaluateRewardsBatch(
+            @Valid @RequestBody RewardsBatchRequest batchRequest) {
+        return rewardsService.previewRewardsBatch(batchRequest.getCarts())
+                .map(ResponseEntity::ok);
+    }
 }
@@ -5,15 +5,21 @@ import com.app.model.OrderRequest;
 import com.app.model.Order;
 import com.app.model.CartRequest;
 import com.app.model.RewardsResponse;
+import com.app.model.Item;
+import com.app.model.OrderHistoryPage;
+import com.app.model.ProfileUpdateRequest;
 import com.app.service.UserService;
 import com.app.service.OrderService;
 import com.app.service.RewardsService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * UserController handles user-related endpoints.
  */
@@ -23,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final OrderService orderService;
 
     /**
      * Fetch user details by ID.
@@ -52,4 +59,46 @@ public class UserController {
         }
         return ResponseEntity.ok(updated);
     }
+
+    /**
+     * Update user's email and name; the profile is synchronized to Talon.One in the background.
+     * PUT /users/{id}/profile
+     */
+    @PutMapping("/{id}/profile")
+    public ResponseEntity<User> updateProfile(@PathVariable Long id, @Valid @RequestBody ProfileUpdateRequest updateRequest) {
+        try {
+            return ResponseEntity.ok(userService.updateProfile(id, updateRequest.getEmail(), updateRequest.getName()));
+        } catch (EntityNotFoundException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * List a user's orders, newest first, as item-free summaries.
+     * GET /users/{id}/orders?limit=20&cursor=...
+     */
+    @GetMapping("/{id}/orders")
+    public ResponseEntity<OrderHistoryPage> getOrderHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderHistory(id, cursor, limit));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Load the items of one of the user's orders.
+     * GET /users/{id}/orders/{orderId}/items
+     */
+    @GetMapping("/{id}/orders/{orderId}/items")
+    public ResponseEntity<List<Item>> getOrderItems(@PathVariable Long id, @PathVariable Long orderId) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderItems(id, orderId));
+        } catch (EntityNotFoundException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
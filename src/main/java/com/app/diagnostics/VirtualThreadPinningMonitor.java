@@ -0,0 +1,114 @@
+package com.app.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects virtual threads pinning their carrier thread, e.g. while blocking inside a
+ * <code>synchronized</code> block of a JDBC driver or while waiting to enter a contended monitor.
+ * <p>
+ * Streams the JFR <code>jdk.VirtualThreadPinned</code> event for pins longer than
+ * <code>diagnostics.virtual-threads.pinning-threshold</code>. Every pin is counted in
+ * <code>jvm.threads.virtual.pinned</code>, tagged with the first application or library frame outside
+ * the JDK; the full stack trace is logged once per such site. Active only when virtual threads are
+ * enabled (<code>spring.threads.virtual.enabled=true</code>) and
+ * <code>diagnostics.virtual-threads.pinning-enabled=true</code>.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "diagnostics.virtual-threads.pinning-enabled"},
+        havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    @Value("${diagnostics.virtual-threads.pinning-threshold:20ms}")
+    private Duration threshold;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        logger.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = pinningSite(event.getStackTrace());
+        Counter.builder("jvm.threads.virtual.pinned")
+                .tag("site", site)
+                .description("Virtual threads that pinned their carrier longer than the threshold")
+                .register(meterRegistry)
+                .increment();
+        if (reportedSites.add(site)) {
+            logger.warn("Virtual thread pinned its carrier for {} at {}; further pins here are only counted:{}",
+                    event.getDuration(), site, format(event.getStackTrace()));
+        }
+    }
+
+    /**
+     * @return The topmost frame outside the JDK, which is where the pinning code can be changed.
+     */
+    private static String pinningSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName();
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " <no stack trace>";
+        }
+        StringBuilder trace = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            trace.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return trace.toString();
+    }
+}
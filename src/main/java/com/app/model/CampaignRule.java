@@ -0,0 +1,38 @@
+package com.app.model;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO representing an active Talon.One campaign in the simplified form the local rewards engine
+ * can evaluate in-process.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CampaignRule {
+
+    public static final String TYPE_PERCENTAGE_DISCOUNT = "PERCENTAGE_DISCOUNT";
+    public static final String TYPE_FIXED_DISCOUNT = "FIXED_DISCOUNT";
+    public static final String TYPE_LOYALTY_POINTS = "LOYALTY_POINTS";
+
+    private String name;
+
+    private String type; // PERCENTAGE_DISCOUNT, FIXED_DISCOUNT or LOYALTY_POINTS
+
+    private double value; // Percent, fixed amount, or loyalty points per currency unit
+
+    private double maxDiscount; // Upper bound of the discount; 0 means unbounded
+
+    private double minimumTotal; // Cart total required for the campaign to apply
+
+    private List<String> skus; // Restricts the campaign to these SKUs; empty means the whole cart
+
+    private String couponCode; // Coupon required for the campaign; null means automatic
+
+    private LocalDateTime startsAt;
+
+    private LocalDateTime endsAt;
+}
@@ -0,0 +1,84 @@
+package com.app.model;
+
+/**
+ * Server-side price of a cart in minor currency units (cents), computed once per request by
+ * {@link com.app.service.CartPricer} and shared by reward evaluation, order placement and the
+ * Talon.One payloads.
+ * <p>
+ * All arithmetic is exact <code>long</code> arithmetic; conversion to and from the <code>double</code>
+ * amounts of the API happens only at the edges, via {@link #toMinor(double)} and {@link #toMajor(long)}.
+ * </p>
+ */
+public final class CartPrice {
+
+    /**
+     * Minor units per major currency unit.
+     */
+    public static final int MINOR_UNITS = 100;
+
+    private final long[] lineTotals;
+    private final long subtotal;
+
+    public CartPrice(long[] lineTotals, long subtotal) {
+        this.lineTotals = lineTotals;
+        this.subtotal = subtotal;
+    }
+
+    /**
+     * @return Sum of all line totals, in minor units.
+     */
+    public long subtotalMinor() {
+        return subtotal;
+    }
+
+    /**
+     * @param line Index of the line in the cart's item list.
+     * @return Quantity times unit price of the line, in minor units.
+     */
+    public long lineTotalMinor(int line) {
+        return lineTotals[line];
+    }
+
+    /**
+     * @return Number of priced lines.
+     */
+    public int lineCount() {
+        return lineTotals.length;
+    }
+
+    /**
+     * @param discountMinor Requested discount in minor units.
+     * @return The discount actually applicable: never negative and never above the subtotal.
+     */
+    public long applicableDiscountMinor(long discountMinor) {
+        return Math.max(0, Math.min(discountMinor, subtotal));
+    }
+
+    /**
+     * @param discountMinor Requested discount in minor units.
+     * @return Subtotal minus the applicable discount, in minor units.
+     */
+    public long totalAfterDiscountMinor(long discountMinor) {
+        return subtotal - applicableDiscountMinor(discountMinor);
+    }
+
+    /**
+     * Rounds an API amount to minor units.
+     *
+     * @throws ArithmeticException If the amount is not finite or does not fit in minor units;
+     *                             {@link Math#round(double)} would saturate instead.
+     */
+    public static long toMinor(double amount) {
+        if (!(Math.abs(amount) <= Long.MAX_VALUE / MINOR_UNITS)) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return Math.round(amount * MINOR_UNITS);
+    }
+
+    /**
+     * Converts minor units to an API amount.
+     */
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_UNITS;
+    }
+}
@@ -1,6 +1,8 @@
 package com.app.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
@@ -17,9 +19,14 @@ public class CartRequest {
     private Long userId;
 
     @NotNull
-    private List<Item> items;
+    private List<@Valid @NotNull Item> items;
 
-    private double total; // Calculated client-side or server-side before reward evaluation
+    private double total; // Replaced by the server-side subtotal once the cart is priced
 
-    // Additional fields for Talon.One (e.g., sessionId, couponCodes) can be added here
+    @JsonIgnore
+    private transient CartPrice price; // Attached by CartPricer, never read from or written to JSON
+
+    private List<String> couponCodes; // Coupon codes entered by the user, forwarded to Talon.One
+
+    // Additional fields for Talon.One (e.g., sessionId) can be added here
 }
@@ -1,13 +1,15 @@
 package com.app.model;
 
 import jakarta.persistence.*;
-lombok.*;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
 
 /**
  * Item entity representing a product in an order or cart.
  */
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = @Index(name = "idx_items_order_id", columnList = "order_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,15 +17,18 @@ lombok.*;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     private String sku;
 
     private String name;
 
+    @Positive
     private int quantity;
 
+    @PositiveOrZero
     private double price;
 
     // If needed, add @ManyToOne to Order for bidirectional mapping
@@ -0,0 +1,51 @@
+package com.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox entry for a pending Talon.One loyalty confirmation.
+ * <p>
+ * Written in the same transaction as the {@link Order} it belongs to and dispatched
+ * asynchronously. Entries are deleted once Talon.One confirmed them.
+ * </p>
+ */
+@Entity
+@Table(name = "loyalty_outbox",
+        indexes = @Index(name = "idx_loyalty_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoyaltyOutboxEntry {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loyalty_outbox_seq")
+    @SequenceGenerator(name = "loyalty_outbox_seq", sequenceName = "loyalty_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private double totalAmount;
+
+    @Column(nullable = false)
+    private String status; // PENDING, or FAILED once retries are exhausted
+
+    private int attempts;
+
+    // Earliest time of the next dispatch; also acts as the lease of a claimed entry
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
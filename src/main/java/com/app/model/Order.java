@@ -1,7 +1,7 @@
 package com.app.model;
 
 import jakarta.persistence.*;
-lombok.*;
+import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -9,15 +9,22 @@ import java.util.List;
  * Order entity representing a user's order.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset pagination of a user's order history, newest first
+        @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at DESC, id DESC"),
+        // Archival claims the oldest orders first
+        @Index(name = "idx_orders_created_id", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
 
+    // Pooled sequence allocation lets Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     // Foreign key to User
@@ -25,8 +32,10 @@ public class Order {
     private Long userId;
 
     // List of items in the order (stored as a JSON string for simplicity, or use @ElementCollection)
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    @JoinColumn(name = "order_id")
+    // Non-nullable join column: order_id is written in the item INSERT instead of a follow-up UPDATE
+    // Lazy: listings use OrderSummary projections and load items on demand
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
     private List<Item> items;
 
     private double total;
@@ -0,0 +1,21 @@
+package com.app.model;
+
+import lombok.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for bulk ingestion of already priced orders (e.g. marketplace or POS imports).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchRequest {
+
+    @NotNull
+    @Size(min = 1, max = 10000)
+    private List<@Valid @NotNull OrderRequest> orders;
+}
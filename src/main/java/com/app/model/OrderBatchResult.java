@@ -0,0 +1,32 @@
+package com.app.model;
+
+import lombok.*;
+
+/**
+ * DTO representing the outcome of a single order of a bulk ingestion request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResult {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_REJECTED = "REJECTED";
+
+    private int index; // Position of the order in the request
+
+    private Long orderId; // Set when the order was created
+
+    private String status; // CREATED or REJECTED
+
+    private String error; // Set when the order was rejected
+
+    public static OrderBatchResult created(int index, Long orderId) {
+        return new OrderBatchResult(index, orderId, STATUS_CREATED, null);
+    }
+
+    public static OrderBatchResult rejected(int index, String error) {
+        return new OrderBatchResult(index, null, STATUS_REJECTED, error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.model;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of a user's order history, newest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHistoryPage {
+
+    private List<OrderSummary> orders;
+
+    private String nextCursor; // Opaque; pass as ?cursor= to fetch the next page, null on the last page
+}
@@ -1,6 +1,7 @@
 package com.app.model;
 
 import lombok.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
@@ -16,6 +17,7 @@ public class OrderRequest {
     @NotNull
     private Long userId;
 
+    @Valid
     @NotNull
     private CartRequest cartRequest;
 }
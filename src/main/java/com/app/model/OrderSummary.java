@@ -0,0 +1,24 @@
+package com.app.model;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Item-free projection of an order for order history listings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    private Long id;
+
+    private double total;
+
+    private double discount;
+
+    private String status;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.app.model;
+
+import lombok.*;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO for updating a user's profile. Loyalty points are not client-editable.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileUpdateRequest {
+
+    @NotBlank
+    @Email
+    private String email;
+
+    private String name;
+}
@@ -0,0 +1,21 @@
+package com.app.model;
+
+import lombok.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for evaluating rewards of several carts in one request (saved carts, wishlists, A/B variants).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardsBatchRequest {
+
+    @NotNull
+    @Size(min = 1, max = 500)
+    private List<@Valid @NotNull CartRequest> carts;
+}
@@ -0,0 +1,37 @@
+package com.app.model;
+
+import lombok.*;
+
+/**
+ * DTO representing the evaluation outcome of a single cart of a batch reward evaluation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RewardsBatchResult {
+
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+    public static final String STATUS_ERROR = "ERROR";
+
+    private int index; // Position of the cart in the request
+
+    private String status; // OK, TIMEOUT or ERROR
+
+    private RewardsResponse rewards; // Set when status is OK
+
+    private String error; // Set when status is ERROR
+
+    public static RewardsBatchResult ok(int index, RewardsResponse rewards) {
+        return new RewardsBatchResult(index, STATUS_OK, rewards, null);
+    }
+
+    public static RewardsBatchResult timeout(int index) {
+        return new RewardsBatchResult(index, STATUS_TIMEOUT, null, null);
+    }
+
+    public static RewardsBatchResult error(int index, String error) {
+        return new RewardsBatchResult(index, STATUS_ERROR, null, error);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 /**
  * DTO representing the response from Talon.One's reward/discount evaluation.
+ * Fields of the Talon.One response that are not mapped here are skipped by {@link com.app.talonone.TalonOneCodec}.
  */
 @Data
 @NoArgsConstructor
@@ -20,5 +21,7 @@ public class RewardsResponse {
 
     private int loyaltyPointsEarned;
 
+    private boolean degraded; // True when computed without Talon.One, e.g. while its circuit breaker is open
+
     // Additional fields as returned by Talon.One can be added here
 }
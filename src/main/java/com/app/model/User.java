@@ -1,7 +1,7 @@
 package com.app.model;
 
 import jakarta.persistence.*;
-lombok.*;
+import lombok.*;
 
 /**
  * User entity representing an application user.
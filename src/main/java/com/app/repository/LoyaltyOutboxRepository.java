@@ -0,0 +1,39 @@
+package com.app.repository;
+
+import com.app.model.LoyaltyOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for LoyaltyOutboxEntry entity.
+ * <p>
+ * Used by the loyalty outbox to enqueue confirmations and to claim due batches for dispatch.
+ * </p>
+ */
+public interface LoyaltyOutboxRepository extends JpaRepository<LoyaltyOutboxEntry, Long> {
+
+    /**
+     * Locks and returns pending entries that are due, oldest first.
+     * Rows locked by another dispatcher are skipped (lock timeout -2 maps to SKIP LOCKED),
+     * so several application nodes can drain the outbox concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from LoyaltyOutboxEntry e where e.status = 'PENDING' and e.nextAttemptAt <= :now order by e.id")
+    List<LoyaltyOutboxEntry> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Creation time of the oldest pending entry, or null if the outbox is drained.
+     */
+    @Query("select min(e.createdAt) from LoyaltyOutboxEntry e where e.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+}
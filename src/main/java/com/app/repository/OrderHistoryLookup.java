@@ -0,0 +1,42 @@
+package com.app.repository;
+
+import com.app.model.Item;
+import com.app.model.OrderSummary;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order lookups spanning the <code>orders</code> table and the {@link com.app.archive.OrderArchive}.
+ * <p>
+ * Mixed into {@link OrderRepository} and implemented by {@link OrderHistoryLookupImpl}, so callers
+ * see archived orders like live ones. History queries use keyset pagination on (userId, createdAt,
+ * id), served by the <code>idx_orders_user_created_id</code> index, and return {@link OrderSummary}
+ * projections that never touch the items table. Only the first <code>pageable.getPageSize()</code>
+ * rows are fetched; the page number must be 0. An order being archived may briefly exist in both
+ * places; it is returned once.
+ * </p>
+ */
+public interface OrderHistoryLookup {
+
+    /**
+     * First page of a user's order history, newest first.
+     */
+    List<OrderSummary> findHistory(Long userId, Pageable pageable);
+
+    /**
+     * Page of a user's order history following the order identified by (createdAt, id).
+     */
+    List<OrderSummary> findHistoryAfter(Long userId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    /**
+     * Items of one order, provided it belongs to the user.
+     */
+    List<Item> findItems(Long userId, Long orderId);
+
+    /**
+     * Whether the order exists and belongs to the user.
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+}
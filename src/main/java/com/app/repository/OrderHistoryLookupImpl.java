@@ -0,0 +1,105 @@
+package com.app.repository;
+
+import com.app.archive.OrderArchive;
+import com.app.model.Item;
+import com.app.model.OrderSummary;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link OrderHistoryLookup} querying the <code>orders</code> table first and falling through to the
+ * archive.
+ * <p>
+ * A history page already filled with orders newer than anything archived skips the archive, which
+ * is the common case for recent pages once archival has caught up.
+ * </p>
+ */
+@RequiredArgsConstructor
+class OrderHistoryLookupImpl implements OrderHistoryLookup {
+
+    private static final String HISTORY = "select new com.app.model.OrderSummary(o.id, o.total, o.discount, o.status, o.createdAt) "
+            + "from Order o where o.userId = :userId ";
+    private static final String NEWEST_FIRST = "order by o.createdAt desc, o.id desc";
+
+    private final EntityManager entityManager;
+    private final OrderArchive orderArchive;
+
+    @Override
+    public List<OrderSummary> findHistory(Long userId, Pageable pageable) {
+        List<OrderSummary> live = entityManager.createQuery(HISTORY + NEWEST_FIRST, OrderSummary.class)
+                .setParameter("userId", userId)
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return withArchived(live, userId, null, null, pageable.getPageSize());
+    }
+
+    @Override
+    public List<OrderSummary> findHistoryAfter(Long userId, LocalDateTime createdAt, Long id, Pageable pageable) {
+        List<OrderSummary> live = entityManager.createQuery(HISTORY
+                        + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+                        + NEWEST_FIRST, OrderSummary.class)
+                .setParameter("userId", userId)
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id)
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return withArchived(live, userId, createdAt, id, pageable.getPageSize());
+    }
+
+    @Override
+    public List<Item> findItems(Long userId, Long orderId) {
+        List<Item> items = entityManager.createQuery(
+                        "select i from Order o join o.items i where o.id = :orderId and o.userId = :userId order by i.id", Item.class)
+                .setParameter("orderId", orderId)
+                .setParameter("userId", userId)
+                .getResultList();
+        return items.isEmpty() ? orderArchive.findItems(userId, orderId) : items;
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(Long id, Long userId) {
+        boolean live = !entityManager.createQuery("select o.id from Order o where o.id = :id and o.userId = :userId", Long.class)
+                .setParameter("id", id)
+                .setParameter("userId", userId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+        return live || orderArchive.contains(userId, id);
+    }
+
+    private List<OrderSummary> withArchived(List<OrderSummary> live, Long userId, LocalDateTime createdAt, Long id, int limit) {
+        LocalDateTime newestArchived = orderArchive.newestCreatedAt();
+        if (newestArchived == null) {
+            return live;
+        }
+        if (live.size() >= limit) {
+            LocalDateTime oldestLive = live.get(live.size() - 1).getCreatedAt();
+            if (oldestLive != null && oldestLive.isAfter(newestArchived)) {
+                return live;
+            }
+        }
+        List<OrderSummary> archived = orderArchive.findHistory(userId, createdAt, id, limit);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<OrderSummary> merged = new ArrayList<>(live);
+        Set<Long> liveIds = new HashSet<>();
+        for (OrderSummary order : live) {
+            liveIds.add(order.getId());
+        }
+        for (OrderSummary order : archived) {
+            if (!liveIds.contains(order.getId())) {
+                merged.add(order);
+            }
+        }
+        merged.sort(OrderArchive.NEWEST_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+}
@@ -1,7 +1,19 @@
 package com.app.repository;
 
 import com.app.model.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository interface for Order entity.
@@ -11,10 +23,39 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * </p>
  *
  * <p>
- * Note: Only default query methods provided by JpaRepository are included.
- * No custom queries are defined here.
+ * Order history, item and existence lookups come from {@link OrderHistoryLookup} and include
+ * archived orders; the inherited CRUD methods see only the orders still in the database.
  * </p>
  */
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    // Default CRUD and query methods are sufficient for Order entity management.
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderHistoryLookup {
+
+    /**
+     * Locks and returns orders created before the cutoff, oldest first, for archival.
+     * Rows locked by another archiver are skipped (lock timeout -2 maps to SKIP LOCKED), so several
+     * application nodes can archive concurrently. Served by the <code>idx_orders_created_id</code> index.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from Order o where o.createdAt < :cutoff order by o.createdAt, o.id")
+    List<Order> findArchivableForUpdate(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Orders with their items initialized, in one query.
+     */
+    @Query("select distinct o from Order o left join fetch o.items where o.id in :ids")
+    List<Order> findWithItems(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the items of the given orders.
+     */
+    @Modifying
+    @Query(value = "delete from items where order_id in (:ids)", nativeQuery = true)
+    int deleteItemsOfOrders(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the given orders; their items must be deleted first.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Order o where o.id in :ids")
+    int deleteOrders(@Param("ids") Collection<Long> ids);
 }
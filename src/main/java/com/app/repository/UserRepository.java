@@ -2,6 +2,11 @@ package com.app.repository;
 
 import com.app.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Set;
 
 /**
  * Repository interface for User entity.
@@ -11,10 +16,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * </p>
  *
  * <p>
- * Note: Only default query methods provided by JpaRepository are included.
- * No custom queries are defined here.
+ * Note: Besides the default query methods provided by JpaRepository, only lightweight
+ * lookups needed by bulk operations are defined here.
  * </p>
  */
 public interface UserRepository extends JpaRepository<User, Long> {
-    // Default CRUD and query methods are sufficient for User entity management.
+
+    /**
+     * Returns which of the given user IDs exist, without loading the users.
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,65 @@
+package com.app.service;
+
+import com.app.model.CartRequest;
+import com.app.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Stable cache key of a cart for reward evaluation.
+ * <p>
+ * Two carts have equal fingerprints when they belong to the same user and contain the same lines
+ * (sku, quantity, price), the same total and the same coupon codes, regardless of line or coupon
+ * order. Item ids and names do not influence Talon.One evaluation and are ignored.
+ * </p>
+ *
+ * @param userId      The ID of the user owning the cart.
+ * @param lines       Cart lines, sorted by sku.
+ * @param total       Cart total, the server-side subtotal once the cart is priced.
+ * @param couponCodes Coupon codes, sorted.
+ */
+public record CartFingerprint(Long userId, List<Line> lines, double total, List<String> couponCodes) {
+
+    private static final Comparator<Line> LINE_ORDER = Comparator
+            .comparing(Line::sku, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(Line::quantity)
+            .thenComparingDouble(Line::price);
+
+    /**
+     * Computes the fingerprint of a cart.
+     *
+     * @param cartRequest The cart to fingerprint.
+     * @return The fingerprint.
+     */
+    public static CartFingerprint of(CartRequest cartRequest) {
+        List<Item> items = cartRequest.getItems();
+        List<Line> lines = new ArrayList<>(items != null ? items.size() : 0);
+        if (items != null) {
+            for (Item item : items) {
+                lines.add(new Line(item.getSku(), item.getQuantity(), item.getPrice()));
+            }
+            lines.sort(LINE_ORDER);
+        }
+
+        List<String> couponCodes = cartRequest.getCouponCodes() != null
+                ? new ArrayList<>(cartRequest.getCouponCodes())
+                : new ArrayList<>();
+        couponCodes.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        return new CartFingerprint(cartRequest.getUserId(), Collections.unmodifiableList(lines),
+                cartRequest.getTotal(), Collections.unmodifiableList(couponCodes));
+    }
+
+    /**
+     * A single cart line as seen by the reward evaluation.
+     *
+     * @param sku      Product SKU.
+     * @param quantity Ordered quantity.
+     * @param price    Unit price.
+     */
+    public record Line(String sku, int quantity, double price) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.service;
+
+import com.app.model.CartPrice;
+import com.app.model.CartRequest;
+import com.app.model.Item;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Prices carts on the server in minor currency units.
+ * <p>
+ * The item list is walked once per request: each line total is the unit price rounded to minor
+ * units times the quantity, and the subtotal is their exact sum. Amounts out of the
+ * <code>long</code> range and overflowing sums raise a {@link CartPricingException} instead of
+ * saturating or wrapping, answered with 400 by {@link com.app.controller.ApiExceptionHandler}. Quantities and prices are validated as positive
+ * and non-negative on the request DTOs. The result is attached to the request and the
+ * client-supplied <code>total</code> is replaced by the server subtotal, so every later reader of the
+ * same request, including the Talon.One session payload, sees the same amount without repricing.
+ * </p>
+ */
+@Component
+public class CartPricer {
+
+    /**
+     * Returns the cart's price, computing and attaching it on first use.
+     * @param cartRequest The cart.
+     * @return The server-side price.
+     */
+    public CartPrice price(CartRequest cartRequest) {
+        CartPrice price = cartRequest.getPrice();
+        if (price != null) {
+            return price;
+        }
+        price = compute(cartRequest.getItems());
+        cartRequest.setPrice(price);
+        cartRequest.setTotal(CartPrice.toMajor(price.subtotalMinor()));
+        return price;
+    }
+
+    private static CartPrice compute(List<Item> items) {
+        int lines = items != null ? items.size() : 0;
+        long[] lineTotals = new long[lines];
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            Item item = items.get(i);
+            try {
+                long lineTotal = Math.multiplyExact(CartPrice.toMinor(item.getPrice()), (long) item.getQuantity());
+                lineTotals[i] = lineTotal;
+                subtotal = Math.addExact(subtotal, lineTotal);
+            } catch (ArithmeticException ex) {
+                throw new CartPricingException(i, ex);
+            }
+        }
+        return new CartPrice(lineTotals, subtotal);
+    }
+
+    /**
+     * Thrown when a cart's amounts do not fit in minor units.
+     */
+    public static class CartPricingException extends RuntimeException {
+
+        public CartPricingException(int line, ArithmeticException cause) {
+            super("Cart amounts out of range at item " + line, cause);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Splits checkout time into database and remote (Talon.One) time.
+ * <p>
+ * Every step is recorded in the <code>checkout.phase</code> timer, tagged with <code>phase</code>
+ * (<code>db</code> or <code>remote</code>) and <code>step</code>, so dashboards can compare, per
+ * checkout, where the time is spent.
+ * </p>
+ */
+@Component
+public class CheckoutMetrics {
+
+    public static final String PHASE_DB = "db";
+    public static final String PHASE_REMOTE = "remote";
+
+    private static final String METRIC = "checkout.phase";
+
+    private final MeterRegistry meterRegistry;
+
+    public CheckoutMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times a blocking step.
+     *
+     * @param phase <code>db</code> or <code>remote</code>.
+     * @param step  Name of the step, e.g. <code>order-persist</code>.
+     * @param work  The step.
+     * @param <T>   Result type.
+     * @return The result of the step.
+     */
+    public <T> T record(String phase, String step, Supplier<T> work) {
+        return timer(phase, step).record(work);
+    }
+
+    /**
+     * Times a reactive step from subscription until it terminates or is cancelled.
+     *
+     * @param phase <code>db</code> or <code>remote</code>.
+     * @param step  Name of the step.
+     * @param work  The step.
+     * @param <T>   Result type.
+     * @return The timed step.
+     */
+    public <T> Mono<T> record(String phase, String step, Mono<T> work) {
+        Timer timer = timer(phase, step);
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return work.doFinally(signal -> sample.stop(timer));
+        });
+    }
+
+    private Timer timer(String phase, String step) {
+        return Timer.builder(METRIC)
+                .tag("phase", phase)
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+}
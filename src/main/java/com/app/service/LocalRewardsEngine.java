@@ -0,0 +1,203 @@
+package com.app.service;
+
+import com.app.model.CampaignRule;
+import com.app.model.CartPrice;
+import com.app.model.CartRequest;
+import com.app.model.Item;
+import com.app.model.RewardsResponse;
+import com.app.talonone.TalonOneClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process evaluation of the common Talon.One campaign types (percentage discount, fixed-amount
+ * discount, loyalty points per currency unit) against a periodically refreshed snapshot of the
+ * running campaigns.
+ * <p>
+ * Two independent modes:
+ * <ul>
+ *   <li><b>Fallback</b> (<code>rewards.local-engine.fallback-enabled</code>): when the remote evaluation
+ *       fails, the local result is served instead, flagged as degraded.</li>
+ *   <li><b>Shadow</b> (<code>rewards.local-engine.shadow-enabled</code>): a sample of remote results is
+ *       compared with the local result and the divergence rate is tracked, to validate the engine
+ *       before relying on it.</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class LocalRewardsEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalRewardsEngine.class);
+
+    private static final double MONEY_EPSILON = 0.005;
+
+    private final TalonOneClient talonOneClient;
+    private final CartPricer cartPricer;
+
+    @Value("${rewards.local-engine.fallback-enabled:false}")
+    private boolean fallbackEnabled;
+
+    @Value("${rewards.local-engine.shadow-enabled:false}")
+    private boolean shadowEnabled;
+
+    @Value("${rewards.local-engine.shadow-sample-rate:0.1}")
+    private double shadowSampleRate;
+
+    private volatile List<CampaignRule> campaigns;
+
+    private final LongAdder shadowComparisons = new LongAdder();
+    private final LongAdder shadowDivergences = new LongAdder();
+
+    public LocalRewardsEngine(TalonOneClient talonOneClient, CartPricer cartPricer) {
+        this.talonOneClient = talonOneClient;
+        this.cartPricer = cartPricer;
+    }
+
+    /**
+     * Refreshes the campaign snapshot. A failed refresh keeps serving the previous snapshot.
+     */
+    @Scheduled(fixedDelayString = "${rewards.local-engine.refresh-interval-millis:60000}")
+    public void refreshCampaigns() {
+        if (!fallbackEnabled && !shadowEnabled) {
+            return;
+        }
+        try {
+            List<CampaignRule> refreshed = talonOneClient.fetchActiveCampaignsReactive().block();
+            campaigns = refreshed != null ? List.copyOf(refreshed) : List.of();
+        } catch (RuntimeException ex) {
+            logger.warn("Refreshing campaign snapshot failed, keeping {} cached campaigns",
+                    campaigns != null ? campaigns.size() : 0, ex);
+        }
+    }
+
+    /**
+     * @return true if a remote failure may be answered with a local evaluation.
+     */
+    public boolean canServeFallback() {
+        return fallbackEnabled && campaigns != null;
+    }
+
+    /**
+     * Evaluates the cart against the campaign snapshot.
+     * @param cartRequest The cart to evaluate.
+     * @return The locally computed rewards, flagged as degraded.
+     */
+    public RewardsResponse evaluate(CartRequest cartRequest) {
+        List<CampaignRule> snapshot = campaigns != null ? campaigns : List.of();
+        LocalDateTime now = LocalDateTime.now();
+        CartPrice price = cartPricer.price(cartRequest);
+        double cartTotal = CartPrice.toMajor(price.subtotalMinor());
+
+        double discount = 0.0;
+        int loyaltyPointsEarned = 0;
+        List<String> appliedCampaigns = new ArrayList<>();
+        for (CampaignRule rule : snapshot) {
+            if (!isApplicable(rule, cartRequest, cartTotal, now)) {
+                continue;
+            }
+            double base = eligibleAmount(rule, cartRequest, price);
+            if (base <= 0) {
+                continue;
+            }
+            switch (rule.getType()) {
+                case CampaignRule.TYPE_PERCENTAGE_DISCOUNT -> discount += cap(rule, base * rule.getValue() / 100.0);
+                case CampaignRule.TYPE_FIXED_DISCOUNT -> discount += cap(rule, Math.min(rule.getValue(), base));
+                case CampaignRule.TYPE_LOYALTY_POINTS -> loyaltyPointsEarned += (int) Math.floor(base * rule.getValue());
+                default -> {
+                    continue;
+                }
+            }
+            appliedCampaigns.add(rule.getName());
+        }
+
+        return RewardsResponse.builder()
+                .discount(Math.min(discount, Math.max(cartTotal, 0.0)))
+                .appliedCampaigns(appliedCampaigns)
+                .loyaltyPointsUsed(0)
+                .loyaltyPointsEarned(loyaltyPointsEarned)
+                .degraded(true)
+                .build();
+    }
+
+    /**
+     * In shadow mode, compares a sample of remote results with the local evaluation of the same cart.
+     * @param cartRequest The evaluated cart.
+     * @param remote      The result returned by Talon.One.
+     */
+    public void shadowCompare(CartRequest cartRequest, RewardsResponse remote) {
+        if (!shadowEnabled || campaigns == null || remote == null
+                || ThreadLocalRandom.current().nextDouble() >= shadowSampleRate) {
+            return;
+        }
+        RewardsResponse local = evaluate(cartRequest);
+        shadowComparisons.increment();
+        if (!matches(local, remote)) {
+            shadowDivergences.increment();
+            logger.debug("Local rewards diverge for user {}: local={}, remote={}", cartRequest.getUserId(), local, remote);
+        }
+    }
+
+    /**
+     * @return Number of shadow comparisons since startup.
+     */
+    public long getShadowComparisons() {
+        return shadowComparisons.sum();
+    }
+
+    /**
+     * @return Fraction of shadow comparisons where the local result differed from Talon.One.
+     */
+    public double getShadowDivergenceRate() {
+        long comparisons = shadowComparisons.sum();
+        return comparisons == 0 ? 0.0 : (double) shadowDivergences.sum() / comparisons;
+    }
+
+    private static boolean isApplicable(CampaignRule rule, CartRequest cartRequest, double cartTotal, LocalDateTime now) {
+        if (rule.getType() == null
+                || (rule.getStartsAt() != null && now.isBefore(rule.getStartsAt()))
+                || (rule.getEndsAt() != null && now.isAfter(rule.getEndsAt()))
+                || cartTotal < rule.getMinimumTotal()) {
+            return false;
+        }
+        return rule.getCouponCode() == null
+                || (cartRequest.getCouponCodes() != null && cartRequest.getCouponCodes().contains(rule.getCouponCode()));
+    }
+
+    private static double eligibleAmount(CampaignRule rule, CartRequest cartRequest, CartPrice price) {
+        if (rule.getSkus() == null || rule.getSkus().isEmpty()) {
+            return CartPrice.toMajor(price.subtotalMinor());
+        }
+        long amount = 0;
+        List<Item> items = cartRequest.getItems();
+        for (int i = 0; i < price.lineCount(); i++) {
+            if (rule.getSkus().contains(items.get(i).getSku())) {
+                amount += price.lineTotalMinor(i);
+            }
+        }
+        return CartPrice.toMajor(amount);
+    }
+
+    private static double cap(CampaignRule rule, double discount) {
+        return rule.getMaxDiscount() > 0 ? Math.min(discount, rule.getMaxDiscount()) : discount;
+    }
+
+    private static boolean matches(RewardsResponse local, RewardsResponse remote) {
+        Set<String> localCampaigns = local.getAppliedCampaigns() != null ? new HashSet<>(local.getAppliedCampaigns()) : Set.of();
+        Set<String> remoteCampaigns = remote.getAppliedCampaigns() != null ? new HashSet<>(remote.getAppliedCampaigns()) : Set.of();
+        return Math.abs(local.getDiscount() - remote.getDiscount()) < MONEY_EPSILON
+                && local.getLoyaltyPointsEarned() == remote.getLoyaltyPointsEarned()
+                && Objects.equals(localCampaigns, remoteCampaigns);
+    }
+}
@@ -0,0 +1,99 @@
+package com.app.service;
+
+import com.app.config.LoyaltyOutboxProperties;
+import com.app.model.LoyaltyOutboxEntry;
+import com.app.service.LoyaltyOutboxService.DispatchFailure;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background worker draining the loyalty confirmation outbox.
+ * <p>
+ * Every poll claims due entries in batches and confirms them against Talon.One with bounded
+ * concurrency, continuing while full batches are found. Delivery is at-least-once: an entry whose
+ * outcome could not be recorded is retried after its lease expires.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LoyaltyOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoyaltyOutboxDispatcher.class);
+
+    private final LoyaltyOutboxService loyaltyOutboxService;
+    private final RewardsService rewardsService;
+    private final LoyaltyOutboxProperties properties;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Drains all due outbox entries and refreshes the lag metric.
+     */
+    @Scheduled(fixedDelayString = "${loyalty.outbox.poll-interval-millis:500}")
+    public void dispatchDue() {
+        try {
+            List<LoyaltyOutboxEntry> batch;
+            do {
+                batch = loyaltyOutboxService.claimDueBatch();
+                if (!batch.isEmpty()) {
+                    dispatch(batch);
+                }
+            } while (batch.size() == properties.getBatchSize());
+        } catch (RuntimeException ex) {
+            logger.warn("Loyalty outbox dispatch failed, retrying on next poll", ex);
+        } finally {
+            lagMillis.set(loyaltyOutboxService.currentLag().toMillis());
+        }
+    }
+
+    /**
+     * @return Age of the oldest pending confirmation in milliseconds, as of the last poll.
+     */
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    /**
+     * @return Number of confirmations Talon.One accepted since startup.
+     */
+    public long getConfirmedCount() {
+        return confirmed.sum();
+    }
+
+    /**
+     * @return Number of failed confirmation attempts since startup.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private void dispatch(List<LoyaltyOutboxEntry> batch) {
+        Queue<Long> confirmedIds = new ConcurrentLinkedQueue<>();
+        List<DispatchFailure> failures = Flux.fromIterable(batch)
+                .flatMap(entry -> rewardsService
+                        .confirmLoyaltyReactive(String.valueOf(entry.getUserId()), entry.getTotalAmount())
+                        .then(Mono.<DispatchFailure>fromRunnable(() -> confirmedIds.add(entry.getId())))
+                        .onErrorResume(ex -> Mono.just(LoyaltyOutboxService.failureOf(entry, ex))),
+                        properties.getConcurrency())
+                .collectList()
+                .block();
+
+        confirmed.add(confirmedIds.size());
+        failed.add(failures.size());
+        loyaltyOutboxService.complete(new ArrayList<>(confirmedIds), failures);
+    }
+}
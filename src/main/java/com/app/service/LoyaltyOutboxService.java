@@ -0,0 +1,153 @@
+package com.app.service;
+
+import com.app.config.LoyaltyOutboxProperties;
+import com.app.model.LoyaltyOutboxEntry;
+import com.app.model.Order;
+import com.app.repository.LoyaltyOutboxRepository;
+import com.app.talonone.TalonOneClient.TalonOneClientException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for the transactional outbox of Talon.One loyalty confirmations.
+ * <p>
+ * Orders enqueue their confirmation in the order's own transaction, so committing an order never
+ * waits for Talon.One. {@link LoyaltyOutboxDispatcher} claims due entries in batches, confirms them
+ * and reports the outcome back here, where failed entries are rescheduled with exponential backoff.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class LoyaltyOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final LoyaltyOutboxRepository loyaltyOutboxRepository;
+    private final LoyaltyOutboxProperties properties;
+
+    /**
+     * Enqueues the loyalty confirmation of an order. Must be called within the order's transaction.
+     * @param order The saved order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        loyaltyOutboxRepository.save(LoyaltyOutboxEntry.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .totalAmount(order.getTotal())
+                .status(LoyaltyOutboxEntry.STATUS_PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Claims a batch of due entries by leasing them to the caller for the configured lease time.
+     * @return The claimed entries, oldest first.
+     */
+    @Transactional
+    public List<LoyaltyOutboxEntry> claimDueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LoyaltyOutboxEntry> batch = loyaltyOutboxRepository.findDueForUpdate(
+                now, PageRequest.of(0, properties.getBatchSize()));
+        LocalDateTime leaseUntil = now.plus(properties.getLease());
+        batch.forEach(entry -> entry.setNextAttemptAt(leaseUntil));
+        return batch;
+    }
+
+    /**
+     * Records the outcome of a dispatched batch: confirmed entries are removed, failed ones are
+     * rescheduled with backoff or marked FAILED once they are not retryable or out of attempts.
+     * @param confirmedIds IDs of entries Talon.One confirmed.
+     * @param failures     Failed entries with their cause.
+     */
+    @Transactional
+    public void complete(List<Long> confirmedIds, List<DispatchFailure> failures) {
+        if (!confirmedIds.isEmpty()) {
+            loyaltyOutboxRepository.deleteAllByIdInBatch(confirmedIds);
+        }
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        Map<Long, DispatchFailure> failuresById = failures.stream()
+                .collect(Collectors.toMap(DispatchFailure::entryId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        for (LoyaltyOutboxEntry entry : loyaltyOutboxRepository.findAllById(failuresById.keySet())) {
+            DispatchFailure failure = failuresById.get(entry.getId());
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(truncate(failure.error()));
+            if (!failure.retryable() || attempts >= properties.getMaxAttempts()) {
+                entry.setStatus(LoyaltyOutboxEntry.STATUS_FAILED);
+            } else {
+                entry.setNextAttemptAt(now.plus(backoff(attempts)));
+            }
+        }
+    }
+
+    /**
+     * Age of the oldest pending confirmation, i.e. how far loyalty confirmation lags behind orders.
+     * @return The lag, or zero if the outbox is drained.
+     */
+    @Transactional(readOnly = true)
+    public Duration currentLag() {
+        // On the primary: a lagging replica would still show entries the dispatcher just completed
+        LocalDateTime oldest = ReadYourWrites.onPrimary(loyaltyOutboxRepository::findOldestPendingCreatedAt);
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, LocalDateTime.now());
+    }
+
+    /**
+     * Builds the failure record of an entry, classifying client errors other than 429 as permanent.
+     * @param entry The entry that failed.
+     * @param error The failure cause.
+     * @return The failure record.
+     */
+    public static DispatchFailure failureOf(LoyaltyOutboxEntry entry, Throwable error) {
+        boolean retryable = true;
+        if (error instanceof TalonOneClientException clientException) {
+            HttpStatus status = clientException.getStatus();
+            retryable = !status.is4xxClientError() || status == HttpStatus.TOO_MANY_REQUESTS;
+        }
+        return new DispatchFailure(entry.getId(), String.valueOf(error.getMessage()), retryable);
+    }
+
+    /**
+     * Exponential backoff with jitter, capped at the configured maximum.
+     */
+    private Duration backoff(int attempts) {
+        long initialMillis = properties.getInitialBackoff().toMillis();
+        long maxMillis = properties.getMaxBackoff().toMillis();
+        long exponential = initialMillis << Math.min(attempts - 1, 30);
+        long capped = exponential <= 0 ? maxMillis : Math.min(exponential, maxMillis);
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    /**
+     * Failed dispatch of an outbox entry.
+     *
+     * @param entryId   ID of the outbox entry.
+     * @param error     Failure message.
+     * @param retryable Whether the confirmation may succeed on a later attempt.
+     */
+    public record DispatchFailure(Long entryId, String error, boolean retryable) {
+    }
+}
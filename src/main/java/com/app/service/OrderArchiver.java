@@ -0,0 +1,117 @@
+package com.app.service;
+
+import com.app.archive.OrderArchive;
+import com.app.archive.OrderSegment;
+import com.app.config.OrderArchiveProperties;
+import com.app.model.Order;
+import com.app.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background job moving orders older than <code>orders.archive.max-age</code> from the
+ * <code>orders</code> and <code>items</code> tables into the {@link OrderArchive}.
+ * <p>
+ * Each batch is claimed with row locks, written to archive segments and then deleted, all in one
+ * transaction: if the transaction rolls back, its segments are deleted again, and if its outcome
+ * is unknown or the process dies in between, the orders are archived again by a later run (the
+ * archive returns duplicates once). Keeping only recent orders in the database bounds table and
+ * index size, so the working set of order placement and history queries stays in the buffer cache.
+ * </p>
+ *
+ * <p>
+ * A run moves at most <code>orders.archive.max-batches-per-run</code> batches, so a large backlog
+ * is worked off over several runs instead of occupying a scheduler thread for hours. Every batch
+ * adds a segment per day it touches; the run then compacts each day's segments into one, so lookups
+ * stay at one segment per day.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final OrderArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder archived = new LongAdder();
+
+    /**
+     * Archives orders past the maximum age, batch by batch, up to the per-run batch limit, and
+     * compacts the archive.
+     */
+    @Scheduled(fixedDelayString = "${orders.archive.interval-millis:3600000}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getMaxAge());
+        try {
+            int moved;
+            int batches = 0;
+            do {
+                moved = archiveBatch(cutoff);
+            } while (moved == properties.getBatchSize() && ++batches < properties.getMaxBatchesPerRun());
+        } catch (RuntimeException ex) {
+            logger.warn("Order archival failed, retrying on next run", ex);
+        }
+        try {
+            int merged = orderArchive.compact(properties.getCompactionMinAge());
+            if (merged > 0) {
+                logger.info("Compacted {} order archive segments", merged);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Order archive compaction failed, retrying on next run", ex);
+        }
+    }
+
+    /**
+     * @return Number of orders archived since startup.
+     */
+    public long getArchivedCount() {
+        return archived.sum();
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Order> claimed = orderRepository.findArchivableForUpdate(cutoff, PageRequest.of(0, properties.getBatchSize()));
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = claimed.stream().map(Order::getId).toList();
+            List<OrderSegment> written = orderArchive.append(orderRepository.findWithItems(ids));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    // On STATUS_UNKNOWN the deletes may have committed: keep the segments, duplicates are harmless
+                    if (completionStatus == STATUS_ROLLED_BACK) {
+                        orderArchive.discard(written);
+                    }
+                }
+            });
+            orderRepository.deleteItemsOfOrders(ids);
+            orderRepository.deleteOrders(ids);
+            return claimed.size();
+        });
+        int count = moved != null ? moved : 0;
+        archived.add(count);
+        if (count > 0) {
+            logger.info("Archived {} orders created before {}", count, cutoff);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.service;
+
+import com.app.cache.TtlCache;
+import com.app.model.Order;
+import com.app.model.OrderRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Executes order placements at most once per <code>Idempotency-Key</code>, so a retried
+ * <code>POST /orders</code> neither evaluates against Talon.One nor persists the order again.
+ * <p>
+ * Recent keys are kept in a bounded store (<code>orders.idempotency.max-size</code>,
+ * <code>orders.idempotency.ttl</code>), scoped to the ordering user. A retry of a completed placement
+ * replays the stored order; a retry arriving while the placement is still running joins that
+ * execution and receives its result. A placement that fails releases its key, so the client may
+ * retry it. Reusing a key with a different request is rejected.
+ * </p>
+ *
+ * <p>
+ * The store is per instance: retries routed to another instance are not deduplicated, and a key
+ * evicted early under size pressure is executed again.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderIdempotency {
+
+    private final TtlCache<String, Execution> idempotencyCache;
+
+    /**
+     * Runs the placement for a new key, or returns the result of the placement already started for it.
+     * @param key          The client-supplied idempotency key.
+     * @param orderRequest The order request; must not have been priced yet.
+     * @param placement    Places the order; invoked only for a new key.
+     * @return A Mono emitting the placed order, shared by every request with the same key.
+     * @throws IdempotencyKeyReusedException if the key was used for a different request.
+     */
+    public Mono<Order> execute(String key, OrderRequest orderRequest, Supplier<Mono<Order>> placement) {
+        String scopedKey = orderRequest.getUserId() + ":" + key;
+        CartFingerprint fingerprint = CartFingerprint.of(orderRequest.getCartRequest());
+
+        Execution[] self = new Execution[1];
+        // cache(): every retry replays the one placement; a disconnecting client does not cancel it
+        Mono<Order> result = Mono.defer(placement)
+                .doOnError(ex -> idempotencyCache.invalidate(scopedKey, self[0]))
+                .cache();
+        self[0] = new Execution(fingerprint, result);
+
+        Execution existing = idempotencyCache.putIfAbsent(scopedKey, self[0]);
+        if (existing == null) {
+            return result;
+        }
+        if (!existing.request().equals(fingerprint)) {
+            return Mono.error(new IdempotencyKeyReusedException(key));
+        }
+        return existing.result();
+    }
+
+    /**
+     * A placement started for an idempotency key.
+     *
+     * @param request Fingerprint of the cart the key was first used with.
+     * @param result  The shared, cached placement.
+     */
+    public record Execution(CartFingerprint request, Mono<Order> result) {
+    }
+
+    /**
+     * Thrown when an idempotency key is reused with a different request.
+     */
+    public static class IdempotencyKeyReusedException extends RuntimeException {
+
+        public IdempotencyKeyReusedException(String key) {
+            super("Idempotency key " + key + " was already used for a different order");
+        }
+    }
+}
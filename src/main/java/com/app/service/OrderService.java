@@ -1,14 +1,37 @@
 package com.app.service;
 
+import com.app.model.CartPrice;
+import com.app.model.Item;
 import com.app.model.Order;
+import com.app.model.OrderBatchResult;
+import com.app.model.OrderHistoryPage;
+import com.app.model.OrderSummary;
 import com.app.model.OrderRequest;
 import com.app.model.CartRequest;
 import com.app.model.RewardsResponse;
 import com.app.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for handling order-related business logic.
@@ -17,41 +40,253 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
     private final UserService userService;
     private final RewardsService rewardsService;
+    private final LoyaltyOutboxService loyaltyOutboxService;
     private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Scheduler jdbcScheduler;
+    private final EntityManager entityManager;
+    private final CheckoutMetrics checkoutMetrics;
+    private final CartPricer cartPricer;
+    private final ReadYourWrites readYourWrites;
+
+    @Value("${orders.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${orders.history.max-page-size:100}")
+    private int historyMaxPageSize;
 
     /**
-     * Places an order: evaluates rewards, saves the order, updates user stats, and confirms loyalty usage.
+     * Places an order: saves the order, updates user stats, and enqueues the loyalty confirmation.
+     * Loyalty usage is confirmed against Talon.One by {@link LoyaltyOutboxDispatcher} after commit.
+     * Runs in one transaction; the time including commit is recorded as database checkout time.
      * @param orderRequest The order request containing user and cart information.
      * @return The saved Order entity.
      */
-    @Transactional
     public Order saveOrder(OrderRequest orderRequest, RewardsResponse rewardsResponse) {
+        return checkoutMetrics.record(CheckoutMetrics.PHASE_DB, "order-persist",
+                () -> transactionTemplate.execute(status -> persistOrder(orderRequest, rewardsResponse)));
+    }
+
+    /**
+     * Non-blocking order placement: evaluates rewards, then saves the order, updates user stats and
+     * enqueues the loyalty confirmation in one transaction on the JDBC scheduler.
+     * @param orderRequest The order request containing user and cart information.
+     * @return A Mono emitting the saved Order entity.
+     */
+    public Mono<Order> placeOrderReactive(OrderRequest orderRequest) {
+        return rewardsService.evaluateRewardsReactive(orderRequest.getCartRequest())
+                .defaultIfEmpty(new RewardsResponse())
+                .flatMap(rewards -> checkoutMetrics.record(CheckoutMetrics.PHASE_DB, "order-persist",
+                        Mono.fromCallable(() -> transactionTemplate.execute(status -> persistOrder(orderRequest, rewards)))
+                                .subscribeOn(jdbcScheduler)));
+    }
+
+    /**
+     * Bulk ingestion of already priced orders (no Talon.One evaluation). Orders are persisted in
+     * chunks of <code>orders.batch.chunk-size</code>, one transaction per chunk, with JDBC batched
+     * inserts; each order otherwise gets the same treatment as {@link #saveOrder}.
+     * Orders of unknown users are rejected individually; a failing chunk rejects all its orders with a
+     * generic reason, the cause is only logged.
+     * @param orderRequests The orders to ingest.
+     * @return One result per order, in request order.
+     */
+    public List<OrderBatchResult> saveOrdersBatch(List<OrderRequest> orderRequests) {
+        List<OrderBatchResult> results = new ArrayList<>(orderRequests.size());
+        for (int from = 0; from < orderRequests.size(); from += batchChunkSize) {
+            List<OrderRequest> chunk = orderRequests.subList(from, Math.min(from + batchChunkSize, orderRequests.size()));
+            int offset = from;
+            try {
+                results.addAll(checkoutMetrics.record(CheckoutMetrics.PHASE_DB, "order-batch-persist",
+                        () -> transactionTemplate.execute(status -> persistChunk(chunk, offset))));
+            } catch (RuntimeException ex) {
+                logger.warn("Persisting orders {} to {} of a batch failed", offset, offset + chunk.size() - 1, ex);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(OrderBatchResult.rejected(offset + i, "Chunk failed"));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Non-blocking variant of {@link #saveOrdersBatch(List)}, running on the JDBC scheduler.
+     * @param orderRequests The orders to ingest.
+     * @return A Mono emitting one result per order, in request order.
+     */
+    public Mono<List<OrderBatchResult>> saveOrdersBatchReactive(List<OrderRequest> orderRequests) {
+        return Mono.fromCallable(() -> saveOrdersBatch(orderRequests))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Returns one page of a user's order history, newest first, without loading any items.
+     * @param userId The ID of the user.
+     * @param cursor The <code>nextCursor</code> of the previous page, or null for the first page.
+     * @param limit  Maximum number of orders, capped at <code>orders.history.max-page-size</code>.
+     * @return The page, with a cursor to the next page if there are more orders.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getOrderHistory(Long userId, String cursor, int limit) {
+        return readYourWrites.read(userId, () -> findOrderHistory(userId, cursor, limit));
+    }
+
+    private OrderHistoryPage findOrderHistory(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, historyMaxPageSize));
+        // One extra row tells whether another page follows
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<OrderSummary> orders;
+        if (cursor == null || cursor.isEmpty()) {
+            orders = orderRepository.findHistory(userId, window);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            orders = orderRepository.findHistoryAfter(userId, position.createdAt(), position.id(), window);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderSummary last = orders.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return OrderHistoryPage.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Loads the items of one order on demand.
+     * @param userId  The ID of the user owning the order.
+     * @param orderId The ID of the order.
+     * @return The items of the order.
+     * @throws EntityNotFoundException if the user has no such order.
+     */
+    @Transactional(readOnly = true)
+    public List<Item> getOrderItems(Long userId, Long orderId) {
+        return readYourWrites.read(userId, () -> {
+            List<Item> items = orderRepository.findItems(userId, orderId);
+            if (items.isEmpty() && !orderRepository.existsByIdAndUserId(orderId, userId)) {
+                throw new EntityNotFoundException("Order not found with id: " + orderId);
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Persists one chunk of a bulk ingestion. Must run inside a transaction.
+     */
+    private List<OrderBatchResult> persistChunk(List<OrderRequest> chunk, int offset) {
+        Set<Long> knownUserIds = userService.findExistingUserIds(chunk.stream()
+                .map(OrderRequest::getUserId)
+                .collect(Collectors.toSet()));
+
+        OrderBatchResult[] results = new OrderBatchResult[chunk.size()];
+        List<Order> orders = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            OrderRequest orderRequest = chunk.get(i);
+            if (knownUserIds.contains(orderRequest.getUserId())) {
+                orders.add(buildOrder(orderRequest, null));
+                positions.add(i);
+            } else {
+                results[i] = OrderBatchResult.rejected(offset + i, "User not found with id: " + orderRequest.getUserId());
+            }
+        }
+
+        // Sequence ids are assigned on persist; the INSERTs go out as JDBC batches on flush
+        orderRepository.saveAll(orders);
+        Set<Long> orderingUserIds = new LinkedHashSet<>();
+        for (int j = 0; j < orders.size(); j++) {
+            Order order = orders.get(j);
+            userService.updateUserStatsAfterOrder(order);
+            loyaltyOutboxService.enqueue(order);
+            orderingUserIds.add(order.getUserId());
+            results[positions.get(j)] = OrderBatchResult.created(offset + positions.get(j), order.getId());
+        }
+        // Same as a single placement, once per user rather than per order
+        for (Long userId : orderingUserIds) {
+            rewardsService.invalidateCachedRewardsAfterCommit(userId);
+            readYourWrites.recordWrite(userId);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Saves the order with the applied discount, updates user statistics and enqueues the
+     * loyalty confirmation. Must run inside a transaction.
+     */
+    private Order persistOrder(OrderRequest orderRequest, RewardsResponse rewardsResponse) {
         // Retrieve user
         Long userId = orderRequest.getUserId();
         com.app.model.User user = userService.getUserById(userId);
 
+        // Create and save the order
+        Order savedOrder = orderRepository.save(buildOrder(orderRequest, rewardsResponse));
+
+        // Update user statistics
+        userService.updateUserStatsAfterOrder(savedOrder);
+
+        // Confirm loyalty points usage asynchronously, committed atomically with the order
+        loyaltyOutboxService.enqueue(savedOrder);
+
+        // Previews computed before this order may no longer apply (coupon usage, loyalty balance)
+        rewardsService.invalidateCachedRewardsAfterCommit(userId);
+
+        // The user's next history reads go to the primary until replicas have the order
+        readYourWrites.recordWrite(userId);
+
+        return savedOrder;
+    }
+
+    /**
+     * Creates a new, unsaved order from the request with the discount from the rewards response applied.
+     * Amounts are computed in minor units from the server-side cart price; the discount is capped at
+     * the subtotal.
+     */
+    private Order buildOrder(OrderRequest orderRequest, RewardsResponse rewardsResponse) {
         // Apply discount from rewards response
-        double discount = rewardsResponse != null ? rewardsResponse.getDiscount() : 0.0;
-        double total = orderRequest.getCartRequest().getTotal() - discount;
+        CartPrice price = cartPricer.price(orderRequest.getCartRequest());
+        long requestedDiscount = rewardsResponse != null ? CartPrice.toMinor(rewardsResponse.getDiscount()) : 0L;
+        double discount = CartPrice.toMajor(price.applicableDiscountMinor(requestedDiscount));
+        double total = CartPrice.toMajor(price.totalAfterDiscountMinor(requestedDiscount));
 
-        // Create and save the order
         Order order = new Order();
-        order.setUserId(userId);
+        order.setUserId(orderRequest.getUserId());
         order.setItems(orderRequest.getCartRequest().getItems());
         order.setTotal(total);
         order.setDiscount(discount);
         order.setStatus("PLACED");
         order.setCreatedAt(java.time.LocalDateTime.now());
-        Order savedOrder = orderRepository.save(order);
+        return order;
+    }
 
-        // Update user statistics
-        userService.updateUserStatsAfterOrder(savedOrder);
+    /**
+     * Keyset position in a user's order history: the (createdAt, id) of the last returned order,
+     * exchanged with clients as an opaque URL-safe token.
+     */
+    private record HistoryCursor(LocalDateTime createdAt, Long id) {
 
-        // Confirm loyalty points usage
-        rewardsService.confirmLoyalty(String.valueOf(userId), total);
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
-        return savedOrder;
+        static HistoryCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Malformed order history cursor", ex);
+            }
+        }
     }
 }
@@ -0,0 +1,55 @@
+package com.app.service;
+
+import com.app.model.ProfileDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracks the last profile successfully synchronized to Talon.One per user, so that
+ * {@link ProfileSyncWorker} does not push unchanged profiles again.
+ * <p>
+ * The tracked set is bounded; the least recently used users are forgotten first, which
+ * only costs one redundant profile update when they come back.
+ * </p>
+ */
+@Component
+public class ProfileChangeDetector {
+
+    private static final int MAX_TRACKED_PROFILES = 100_000;
+
+    private final Map<String, ProfileDTO> lastSynced = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ProfileDTO> eldest) {
+                    return size() > MAX_TRACKED_PROFILES;
+                }
+            });
+
+    /**
+     * Checks whether the profile differs from the last one synchronized for the same user.
+     * @param profile The profile about to be sent to Talon.One.
+     * @return true if the profile has never been synchronized or any of its fields changed.
+     */
+    public boolean hasChanged(ProfileDTO profile) {
+        return !profile.equals(lastSynced.get(profile.getUserId()));
+    }
+
+    /**
+     * Records a profile as successfully synchronized to Talon.One.
+     * @param profile The profile Talon.One accepted.
+     */
+    public void markSynced(ProfileDTO profile) {
+        lastSynced.put(profile.getUserId(), profile);
+    }
+
+    /**
+     * Forgets the synchronized state of a user, so the next evaluation schedules a profile sync.
+     * @param userId The ID of the user.
+     */
+    public void invalidate(String userId) {
+        lastSynced.remove(userId);
+    }
+}
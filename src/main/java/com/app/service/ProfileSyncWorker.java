@@ -0,0 +1,297 @@
+package com.app.service;
+
+import com.app.config.TalonOneProperties;
+import com.app.model.ProfileDTO;
+import com.app.model.User;
+import com.app.repository.UserRepository;
+import com.app.talonone.TalonOneClient;
+import com.app.talonone.TalonOneRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Change-driven, batched synchronization of user profiles to Talon.One.
+ * <p>
+ * Profile changes are recorded per user (after the changing transaction commits) and coalesced until
+ * the next sync, so any number of changes within one interval cost one update carrying the latest
+ * state read from the database. Pending users are sent oldest change first, in bulk updates of
+ * <code>talonone.profile-sync.batch-size</code> profiles; profiles equal to the last synchronized
+ * one are skipped.
+ * </p>
+ *
+ * <p>
+ * Backpressure: a sync works in rounds of at most <code>concurrency</code> bulk updates in flight and
+ * starts the next round only once the previous one fully succeeded, for at most
+ * <code>max-rounds-per-sync</code> rounds. A failed update (including an open circuit breaker or
+ * throttling) puts its users back with their original change time and ends the sync until the next
+ * interval. The pending set holds one entry per user, so it is bounded by the number of users, not by
+ * the rate of changes; it is kept ordered by change time, so claiming the oldest users does not sort
+ * the whole backlog.
+ * </p>
+ *
+ * <p>
+ * Freshness, the time from the first unsynchronized change to Talon.One accepting the profile, is
+ * recorded in <code>talonone.profile.sync.freshness</code> with the configured SLA as a service
+ * level objective. Pending changes are not persisted; users whose profile Talon.One may not have
+ * are marked again on their next reward evaluation, and users assigned to another Talon.One
+ * deployment by {@link TalonOneRouter} are marked on assignment.
+ * </p>
+ */
+@Component
+public class ProfileSyncWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileSyncWorker.class);
+
+    private final UserRepository userRepository;
+    private final TalonOneClient talonOneClient;
+    private final ProfileChangeDetector profileChangeDetector;
+    private final TalonOneProperties.ProfileSync properties;
+    private final Timer freshness;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    /** User ID to the {@link System#nanoTime()} of its oldest change not yet synchronized. */
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    /** The entries of {@link #pending}, oldest change first; only changed inside <code>pending.compute</code>. */
+    private final NavigableSet<Change> byChangeTime = new ConcurrentSkipListSet<>();
+
+    private final LongAdder synced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ProfileSyncWorker(UserRepository userRepository, TalonOneClient talonOneClient, TalonOneRouter router,
+                             ProfileChangeDetector profileChangeDetector, TalonOneProperties talonOneProperties,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.talonOneClient = talonOneClient;
+        this.profileChangeDetector = profileChangeDetector;
+        this.properties = talonOneProperties.getProfileSync();
+        this.freshness = Timer.builder("talonone.profile.sync.freshness")
+                .description("Time from a profile change until Talon.One accepted the profile")
+                .serviceLevelObjectives(properties.getFreshnessSla())
+                .register(meterRegistry);
+        // A user assigned to another Talon.One deployment needs their profile there, changed or not
+        router.addAssignmentListener(userId -> {
+            profileChangeDetector.invalidate(userId);
+            markChanged(Long.valueOf(userId));
+        });
+    }
+
+    /**
+     * Marks a user's profile as changed once the surrounding transaction commits, or immediately if
+     * there is no transaction.
+     * @param userId The ID of the user.
+     */
+    public void markChangedAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markChanged(userId);
+                }
+            });
+        } else {
+            markChanged(userId);
+        }
+    }
+
+    /**
+     * Marks a user's profile as changed. Repeated changes before the next sync are coalesced.
+     * @param userId The ID of the user.
+     */
+    public void markChanged(Long userId) {
+        pending.computeIfAbsent(userId, id -> {
+            long now = System.nanoTime();
+            byChangeTime.add(new Change(now, id));
+            return now;
+        });
+    }
+
+    /**
+     * Schedules a sync of the profile unless it equals the last one synchronized, e.g. for a user
+     * evaluated for the first time since startup. Never calls Talon.One itself.
+     * @param profile The user's current profile.
+     */
+    public void markChangedIfUnsynced(ProfileDTO profile) {
+        if (profileChangeDetector.hasChanged(profile)) {
+            markChanged(Long.valueOf(profile.getUserId()));
+        }
+    }
+
+    /**
+     * @return Number of users with a profile change not yet synchronized.
+     */
+    public int pendingUsers() {
+        return pending.size();
+    }
+
+    /**
+     * @return Age of the oldest unsynchronized profile change in milliseconds, or 0 if there is none.
+     */
+    public long getOldestPendingMillis() {
+        return byChangeTime.stream().findFirst()
+                .map(oldest -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.changedAt()))
+                .orElse(0L);
+    }
+
+    /**
+     * @return Number of profiles Talon.One accepted since startup.
+     */
+    public long getSyncedCount() {
+        return synced.sum();
+    }
+
+    /**
+     * @return Number of profiles whose update failed since startup, counting each attempt.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Synchronizes pending profiles, round by round, until none are left, a round fails or the
+     * maximum number of rounds is reached.
+     */
+    @Scheduled(fixedDelayString = "${talonone.profile-sync.interval-millis:1000}")
+    public void sync() {
+        // A lock rather than a monitor: the sync does JDBC and HTTP I/O and must not pin a virtual thread's carrier
+        syncLock.lock();
+        try {
+            boolean succeeded = true;
+            for (int round = 0; succeeded && round < properties.getMaxRoundsPerSync() && !pending.isEmpty(); round++) {
+                succeeded = syncRound();
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Profile sync failed, retrying on next interval", ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Makes a last attempt to synchronize pending profiles on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        sync();
+        if (!pending.isEmpty()) {
+            logger.warn("{} profile changes not synchronized to Talon.One at shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Sends the oldest pending profiles in up to <code>concurrency</code> concurrent bulk updates.
+     * @return true if every update succeeded.
+     */
+    private boolean syncRound() {
+        Map<Long, Long> claimed = claimOldest(properties.getBatchSize() * properties.getConcurrency());
+        List<ProfileDTO> profiles = new ArrayList<>(claimed.size());
+        try {
+            // Changes are marked right after commit, before a replica may have them
+            for (User user : ReadYourWrites.onPrimary(() -> userRepository.findAllById(claimed.keySet()))) {
+                ProfileDTO profile = RewardsService.toProfile(user);
+                if (profileChangeDetector.hasChanged(profile)) {
+                    profiles.add(profile);
+                }
+            }
+        } catch (RuntimeException ex) {
+            claimed.keySet().forEach(userId -> restore(userId, claimed));
+            throw ex;
+        }
+
+        AtomicBoolean allSucceeded = new AtomicBoolean(true);
+        Flux.fromIterable(partition(profiles))
+                .flatMap(batch -> talonOneClient.updateProfilesReactive(batch)
+                                .then(Mono.fromRunnable(() -> onSynced(batch, claimed)))
+                                .onErrorResume(ex -> {
+                                    allSucceeded.set(false);
+                                    onFailed(batch, claimed, ex);
+                                    return Mono.empty();
+                                }),
+                        properties.getConcurrency())
+                .then()
+                .block();
+        return allSucceeded.get();
+    }
+
+    private Map<Long, Long> claimOldest(int limit) {
+        Map<Long, Long> claimed = new ConcurrentHashMap<>();
+        Change oldest;
+        while (claimed.size() < limit && (oldest = byChangeTime.pollFirst()) != null) {
+            // A change marked after this point is picked up by a later round
+            if (pending.remove(oldest.userId(), oldest.changedAt())) {
+                claimed.put(oldest.userId(), oldest.changedAt());
+            }
+        }
+        return claimed;
+    }
+
+    private List<List<ProfileDTO>> partition(List<ProfileDTO> profiles) {
+        List<List<ProfileDTO>> batches = new ArrayList<>();
+        for (int from = 0; from < profiles.size(); from += properties.getBatchSize()) {
+            batches.add(profiles.subList(from, Math.min(from + properties.getBatchSize(), profiles.size())));
+        }
+        return batches;
+    }
+
+    private void onSynced(List<ProfileDTO> batch, Map<Long, Long> claimed) {
+        long now = System.nanoTime();
+        for (ProfileDTO profile : batch) {
+            profileChangeDetector.markSynced(profile);
+            freshness.record(Duration.ofNanos(now - claimed.get(Long.valueOf(profile.getUserId()))));
+        }
+        synced.add(batch.size());
+    }
+
+    private void onFailed(List<ProfileDTO> batch, Map<Long, Long> claimed, Throwable ex) {
+        for (ProfileDTO profile : batch) {
+            restore(Long.valueOf(profile.getUserId()), claimed);
+        }
+        failed.add(batch.size());
+        logger.debug("Bulk update of {} profiles failed", batch.size(), ex);
+    }
+
+    private void restore(Long userId, Map<Long, Long> claimed) {
+        // Keep the original change time, which precedes any change marked meanwhile
+        long original = claimed.get(userId);
+        pending.compute(userId, (id, current) -> {
+            if (current != null) {
+                byChangeTime.remove(new Change(current, id));
+            }
+            byChangeTime.add(new Change(original, id));
+            return original;
+        });
+    }
+
+    /**
+     * A pending user, ordered by change time and then user ID.
+     */
+    private record Change(long changedAt, Long userId) implements Comparable<Change> {
+
+        @Override
+        public int compareTo(Change other) {
+            int byTime = Long.compare(changedAt - other.changedAt, 0);
+            return byTime != 0 ? byTime : userId.compareTo(other.userId);
+        }
+    }
+}
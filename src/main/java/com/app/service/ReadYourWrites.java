@@ -0,0 +1,93 @@
+package com.app.service;
+
+import com.app.cache.TtlCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes consistency on top of replica routing.
+ * <p>
+ * Writes affecting a user are recorded once they commit. For the following
+ * <code>datasource.read-replicas.read-your-writes-window</code>, reads of that user's data run on the
+ * primary, so the user never sees a replica that has not caught up with their own order or update.
+ * Reads of all other users keep going to the replicas.
+ * </p>
+ *
+ * <p>
+ * The decision is bound to the current thread while the read runs and picked up by
+ * {@link com.app.config.ReplicaRoutingDataSource} when the connection is acquired, so the read must
+ * not have touched the database before {@link #read(Long, Supplier)} is entered.
+ * </p>
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final TtlCache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(TtlCache<Long, Boolean> recentWriters) {
+        this.recentWriters = recentWriters;
+    }
+
+    /**
+     * Records a write affecting the user once the surrounding transaction commits, or immediately if
+     * there is no transaction.
+     * @param userId The ID of the user.
+     */
+    public void recordWrite(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Runs a read of the user's data, on the primary if the user wrote within the window.
+     * @param userId The ID of the user whose data is read.
+     * @param read   The read.
+     * @param <T>    Result type.
+     * @return The result of the read.
+     */
+    public <T> T read(Long userId, Supplier<T> read) {
+        if (recentWriters.get(userId) == null) {
+            return read.get();
+        }
+        return onPrimary(read);
+    }
+
+    /**
+     * Runs a read on the primary, for reads that must see writes committed just before, such as
+     * background workers acting on changes marked after commit.
+     * @param read The read.
+     * @param <T>  Result type.
+     * @return The result of the read.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPrimaryRequired()) {
+            return read.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    /**
+     * @return true if the current thread is running a read that must see the user's own writes.
+     */
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+}
@@ -1,44 +1,296 @@
 package com.app.service;
 
+import com.app.cache.TtlCache;
+import com.app.model.CartPrice;
 import com.app.model.CartRequest;
+import com.app.model.RewardsBatchResult;
+import com.app.model.ProfileDTO;
 import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.model.User;
 import com.app.talonone.TalonOneClient;
-lombok.RequiredArgsConstructor;
+import com.app.talonone.TalonOneClient.CircuitOpenException;
+import com.app.talonone.TalonOneClient.TalonOneClientException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Service layer for integrating with Talon.One to manage rewards and discounts.
+ * <p>
+ * Carts are priced on the server by {@link CartPricer} before evaluation; the client-supplied
+ * total is not trusted.
+ * </p>
+ *
+ * <p>
+ * Evaluation never writes profiles to Talon.One. Profiles are pushed in the background by
+ * {@link ProfileSyncWorker}; evaluating a user whose profile has not been synchronized since startup
+ * only schedules that sync, so the very first evaluation may run against an older profile.
+ * </p>
+ *
+ * <p>
+ * Evaluation previews ({@link #previewRewards(CartRequest)}) are cached by {@link CartFingerprint}
+ * and the generation of the user's invalidation slot. Placing an order bumps the slot's generation
+ * after the order commits, which makes the user's cached previews unreachable in constant time; they
+ * age out of the cache on their own. Order placement itself always evaluates against Talon.One.
+ * </p>
+ *
+ * <p>
+ * While a Talon.One circuit breaker is open, profile sync is skipped and evaluation returns a
+ * degraded response without discount, so checkout proceeds at full price. With the
+ * {@link LocalRewardsEngine} fallback enabled, failed remote evaluations are answered in-process instead.
+ * </p>
+ *
+ * <p>
+ * None of the methods run in a transaction, so no pooled database connection is held while waiting
+ * for Talon.One; the user lookup manages its own.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class RewardsService {
 
+    private static final int PREVIEW_GENERATION_SLOTS = 1 << 16;
+
     private final TalonOneClient talonOneClient;
+    private final UserService userService;
+    private final ProfileSyncWorker profileSyncWorker;
+    private final Scheduler jdbcScheduler;
+    private final TtlCache<PreviewKey, RewardsResponse> rewardsCache;
+    private final LocalRewardsEngine localRewardsEngine;
+    private final CheckoutMetrics checkoutMetrics;
+    private final CartPricer cartPricer;
+
+    /** Invalidation generation per user slot; users sharing a slot also share invalidations. */
+    private final AtomicLongArray previewGenerations = new AtomicLongArray(PREVIEW_GENERATION_SLOTS);
+
+    @Value("${rewards.batch.concurrency:16}")
+    private int batchConcurrency;
+
+    @Value("${rewards.batch.item-timeout:2s}")
+    private Duration batchItemTimeout;
 
     /**
      * Evaluates rewards and discounts for a given cart by interacting with Talon.One.
      * @param cartRequest The cart request containing items and user information.
      * @return The rewards response with applicable discounts.
      */
-    @Transactional(readOnly = true)
     public RewardsResponse evaluateRewards(CartRequest cartRequest) {
-        // Update user profile in Talon.One
-        talonOneClient.updateProfile(cartRequest.getUserId(), cartRequest);
+        cartPricer.price(cartRequest);
+        ProfileDTO profile = checkoutMetrics.record(CheckoutMetrics.PHASE_DB, "user-lookup",
+                () -> toProfile(userService.getUserById(cartRequest.getUserId())));
+        return evaluate(profile, cartRequest).block();
+    }
 
-        // Evaluate the session for discounts and rewards
-        RewardsResponse rewardsResponse = talonOneClient.evaluateSession(cartRequest.getUserId(), cartRequest);
+    /**
+     * Non-blocking variant of {@link #evaluateRewards(CartRequest)} for the reactive checkout pipeline.
+     * The user lookup runs on the JDBC scheduler.
+     * @param cartRequest The cart request containing items and user information.
+     * @return A Mono emitting the rewards response with applicable discounts.
+     */
+    public Mono<RewardsResponse> evaluateRewardsReactive(CartRequest cartRequest) {
+        cartPricer.price(cartRequest);
+        Mono<ProfileDTO> profileLookup = Mono.fromCallable(() -> toProfile(userService.getUserById(cartRequest.getUserId())))
+                .subscribeOn(jdbcScheduler);
+        return checkoutMetrics.record(CheckoutMetrics.PHASE_DB, "user-lookup", profileLookup)
+                .flatMap(profile -> evaluate(profile, cartRequest));
+    }
 
+    /**
+     * Evaluates rewards for a cart preview, serving repeated evaluations of the same cart from the cache.
+     * @param cartRequest The cart request containing items and user information.
+     * @return The rewards response with applicable discounts.
+     */
+    public RewardsResponse previewRewards(CartRequest cartRequest) {
+        cartPricer.price(cartRequest);
+        PreviewKey key = previewKey(cartRequest);
+        RewardsResponse cached = rewardsCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        RewardsResponse rewardsResponse = evaluateRewards(cartRequest);
+        if (rewardsResponse != null && !rewardsResponse.isDegraded()) {
+            rewardsCache.put(key, rewardsResponse);
+        }
         return rewardsResponse;
     }
 
+    /**
+     * Non-blocking variant of {@link #previewRewards(CartRequest)}.
+     * @param cartRequest The cart request containing items and user information.
+     * @return A Mono emitting the rewards response with applicable discounts.
+     */
+    public Mono<RewardsResponse> previewRewardsReactive(CartRequest cartRequest) {
+        cartPricer.price(cartRequest);
+        PreviewKey key = previewKey(cartRequest);
+        RewardsResponse cached = rewardsCache.get(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return evaluateRewardsReactive(cartRequest)
+                .doOnNext(rewardsResponse -> {
+                    if (!rewardsResponse.isDegraded()) {
+                        rewardsCache.put(key, rewardsResponse);
+                    }
+                });
+    }
+
+    /**
+     * Evaluates reward previews for several carts, at most <code>rewards.batch.concurrency</code> at a
+     * time. Each cart has its own deadline (<code>rewards.batch.item-timeout</code>); carts that miss it
+     * or fail are reported individually while the others still return their rewards.
+     * @param cartRequests The carts to evaluate.
+     * @return A Mono emitting one result per cart, in request order.
+     */
+    public Mono<List<RewardsBatchResult>> previewRewardsBatch(List<CartRequest> cartRequests) {
+        return Flux.range(0, cartRequests.size())
+                .flatMapSequential(index -> Mono.defer(() -> previewRewardsReactive(cartRequests.get(index)))
+                        .timeout(batchItemTimeout)
+                        .map(rewards -> RewardsBatchResult.ok(index, rewards))
+                        .defaultIfEmpty(RewardsBatchResult.ok(index, null))
+                        .onErrorResume(TimeoutException.class, ex -> Mono.just(RewardsBatchResult.timeout(index)))
+                        .onErrorResume(ex -> Mono.just(RewardsBatchResult.error(index, ex.getMessage()))),
+                        batchConcurrency)
+                .collectList();
+    }
+
+    /**
+     * Drops all cached evaluation previews of a user once the surrounding transaction commits, or
+     * immediately if there is no transaction, e.g. after they placed an order.
+     * @param userId The ID of the user.
+     */
+    public void invalidateCachedRewardsAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateCachedRewards(userId);
+                }
+            });
+        } else {
+            invalidateCachedRewards(userId);
+        }
+    }
+
+    /**
+     * Drops all cached evaluation previews of a user. A preview being evaluated meanwhile is cached
+     * under the old generation and never served.
+     * @param userId The ID of the user.
+     */
+    public void invalidateCachedRewards(Long userId) {
+        previewGenerations.incrementAndGet(previewSlot(userId));
+    }
+
+    private PreviewKey previewKey(CartRequest cartRequest) {
+        CartFingerprint fingerprint = CartFingerprint.of(cartRequest);
+        long generation = fingerprint.userId() != null ? previewGenerations.get(previewSlot(fingerprint.userId())) : 0;
+        return new PreviewKey(fingerprint, generation);
+    }
+
+    private static int previewSlot(Long userId) {
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), PREVIEW_GENERATION_SLOTS);
+    }
+
     /**
      * Confirms the usage of loyalty points for a user after an order is placed.
      * @param userId The ID of the user.
      * @param total The total amount for which loyalty points are confirmed.
      */
-    @Transactional
     public void confirmLoyalty(String userId, double total) {
         talonOneClient.confirmLoyalty(userId, total);
     }
+
+    /**
+     * Non-blocking variant of {@link #confirmLoyalty(String, double)}.
+     * @param userId The ID of the user.
+     * @param total The total amount for which loyalty points are confirmed.
+     * @return A Mono completing once Talon.One has confirmed the loyalty usage.
+     */
+    public Mono<Void> confirmLoyaltyReactive(String userId, double total) {
+        return talonOneClient.confirmLoyaltyReactive(userId, total);
+    }
+
+    /**
+     * Evaluates the session, scheduling a background profile sync if Talon.One may not have the
+     * current profile. Recorded as remote checkout time.
+     */
+    private Mono<RewardsResponse> evaluate(ProfileDTO profile, CartRequest cartRequest) {
+        profileSyncWorker.markChangedIfUnsynced(profile);
+        return checkoutMetrics.record(CheckoutMetrics.PHASE_REMOTE, "rewards-evaluation",
+                talonOneClient.evaluateSessionReactive(toSession(profile, cartRequest))
+                        .doOnNext(remote -> localRewardsEngine.shadowCompare(cartRequest, remote))
+                        .onErrorResume(TalonOneClientException.class, ex -> fallback(cartRequest, ex)));
+    }
+
+    /**
+     * Answers a remote evaluation that failed because Talon.One was unavailable locally when the
+     * fallback is enabled; otherwise an open circuit yields no discount. Client errors Talon.One
+     * answered with (e.g. a rejected coupon) and all other failures are propagated.
+     */
+    private Mono<RewardsResponse> fallback(CartRequest cartRequest, TalonOneClientException ex) {
+        if (!ex.isTransient()) {
+            return Mono.error(ex);
+        }
+        if (localRewardsEngine.canServeFallback()) {
+            return Mono.just(localRewardsEngine.evaluate(cartRequest));
+        }
+        if (ex instanceof CircuitOpenException) {
+            return Mono.just(withoutDiscount());
+        }
+        return Mono.error(ex);
+    }
+
+    /**
+     * Degraded evaluation result used when Talon.One cannot be asked: no discount, no campaigns.
+     */
+    private RewardsResponse withoutDiscount() {
+        return RewardsResponse.builder()
+                .discount(0.0)
+                .appliedCampaigns(List.of())
+                .degraded(true)
+                .build();
+    }
+
+    /**
+     * Builds the Talon.One profile payload for a user.
+     */
+    static ProfileDTO toProfile(User user) {
+        return ProfileDTO.builder()
+                .userId(String.valueOf(user.getId()))
+                .email(user.getEmail())
+                .name(user.getName())
+                .loyaltyPoints(user.getLoyaltyPoints())
+                .build();
+    }
+
+    /**
+     * Builds the Talon.One session payload for a priced cart. The session carries no random
+     * identifier, so identical concurrent evaluations can be coalesced by the client.
+     */
+    private SessionDTO toSession(ProfileDTO profile, CartRequest cartRequest) {
+        return SessionDTO.builder()
+                .userId(profile.getUserId())
+                .items(cartRequest.getItems())
+                .total(CartPrice.toMajor(cartPricer.price(cartRequest).subtotalMinor()))
+                .couponCodes(cartRequest.getCouponCodes())
+                .build();
+    }
+
+    /**
+     * Key of a cached evaluation preview: the cart and the invalidation generation of its user.
+     * @param fingerprint The evaluated cart.
+     * @param generation  Generation of the user's invalidation slot when the preview was computed.
+     */
+    public record PreviewKey(CartFingerprint fingerprint, long generation) {
+    }
 }
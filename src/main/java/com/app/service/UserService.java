@@ -1,20 +1,40 @@
 package com.app.service;
 
+import com.app.cache.TtlCache;
 import com.app.model.User;
 import com.app.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
-lombok.RequiredArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Service layer for managing user-related business logic.
+ * <p>
+ * User lookups by ID are served read-through from a bounded TTL cache. Cached users are shared
+ * instances and must not be modified by callers; writes here evict the affected user.
+ * </p>
+ *
+ * <p>
+ * Writes always run on the primary database. Cache misses may be served by a read replica, except
+ * for users who wrote recently, see {@link ReadYourWrites}.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserStatsAggregator userStatsAggregator;
+    private final TtlCache<Long, User> userCache;
+    private final ProfileSyncWorker profileSyncWorker;
+    private final ReadYourWrites readYourWrites;
 
     /**
      * Fetches a user by their ID.
@@ -22,10 +42,26 @@ public class UserService {
      * @return The User entity.
      * @throws EntityNotFoundException if the user is not found.
      */
-    @Transactional(readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
+        // Deliberately not @Transactional: a cache hit must not acquire a database connection
+        User cached = userCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        // On the primary right after the user's own writes, a replica may not have them yet
+        User user = readYourWrites.read(id, () -> loadUser(id));
+        userCache.put(id, user);
+        return user;
+    }
+
+    /**
+     * Returns which of the given user IDs exist. Reads the primary, so users created just before are found.
+     * @param ids The IDs to check.
+     * @return The subset of IDs belonging to existing users.
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> findExistingUserIds(Collection<Long> ids) {
+        return ReadYourWrites.onPrimary(() -> userRepository.findExistingIds(ids));
     }
 
     /**
@@ -37,22 +73,72 @@ public class UserService {
      */
     @Transactional
     public User updateUserStats(Long id, int totalOrders, double totalSpent) {
-        User user = getUserById(id);
+        // The new totals supersede any order deltas not yet written behind
+        userStatsAggregator.discardAfterCommit(id);
+        User user = loadUser(id);
         user.setTotalOrders(totalOrders);
         user.setTotalSpent(totalSpent);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        evict(id);
+        readYourWrites.recordWrite(id);
+        return saved;
     }
 
     /**
-     * Updates user statistics after an order is placed.
-     * @param order The order that was placed.
+     * Updates the user's profile attributes. Talon.One receives the new profile from
+     * {@link ProfileSyncWorker} after the transaction commits.
+     * @param id The ID of the user.
+     * @param email The new email address.
+     * @param name The new name.
      * @return The updated User entity.
      */
     @Transactional
-    public User updateUserStatsAfterOrder(com.app.model.Order order) {
-        User user = getUserById(order.getUserId());
-        user.setTotalOrders(user.getTotalOrders() + 1);
-        user.setTotalSpent(user.getTotalSpent() + order.getTotal());
-        return userRepository.save(user);
+    public User updateProfile(Long id, String email, String name) {
+        User user = loadUser(id);
+        boolean changed = !Objects.equals(user.getEmail(), email) || !Objects.equals(user.getName(), name);
+        user.setEmail(email);
+        user.setName(name);
+        User saved = userRepository.save(user);
+        evict(id);
+        readYourWrites.recordWrite(id);
+        if (changed) {
+            profileSyncWorker.markChangedAfterCommit(id);
+        }
+        return saved;
+    }
+
+    /**
+     * Updates user statistics after an order is placed.
+     * <p>
+     * The increment is applied write-behind by {@link UserStatsAggregator} once the order's
+     * transaction commits, so the stored totals may lag by up to one flush interval. The aggregator
+     * evicts the user from the cache when the increment reaches the database.
+     * </p>
+     * @param order The order that was placed.
+     */
+    public void updateUserStatsAfterOrder(com.app.model.Order order) {
+        userStatsAggregator.recordOrderAfterCommit(order.getUserId(), order.getTotal());
+    }
+
+    /**
+     * Drops a user from the cache, and again once the current transaction commits so that a
+     * concurrent read of the old row cannot linger.
+     * @param id The ID of the user.
+     */
+    public void evict(Long id) {
+        userCache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userCache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private User loadUser(Long id) {
+        return userRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
     }
 }
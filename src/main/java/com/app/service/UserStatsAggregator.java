@@ -0,0 +1,315 @@
+package com.app.service;
+
+import com.app.cache.TtlCache;
+import com.app.config.UserStatsProperties;
+import com.app.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind aggregator of user order statistics.
+ * <p>
+ * Instead of a read-modify-write of {@link com.app.model.User} per order, order count and amount
+ * deltas are accumulated in memory, striped by user ID, and periodically applied as batched
+ * relative updates (<code>total_orders = total_orders + ?</code>). Updates are issued in user ID
+ * order so concurrent flushes from several nodes cannot deadlock.
+ * </p>
+ *
+ * <p>
+ * Deltas are recorded only after the order transaction commits. A failed flush keeps its deltas for
+ * the next attempt; deltas still pending at shutdown are appended to a journal file and replayed on
+ * the next start. An abrupt process kill loses at most one flush interval of deltas.
+ * </p>
+ */
+@Component
+public class UserStatsAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsAggregator.class);
+
+    private static final String INCREMENT_SQL =
+            "UPDATE users SET total_orders = total_orders + ?, total_spent = total_spent + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserStatsProperties properties;
+    private final TtlCache<Long, User> userCache;
+    private final Stripe[] stripes;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public UserStatsAggregator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               UserStatsProperties properties, TtlCache<Long, User> userCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.userCache = userCache;
+        this.stripes = new Stripe[properties.getStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Records an order for a user once the surrounding transaction commits, or immediately if
+     * there is no transaction.
+     * @param userId The ID of the user.
+     * @param amount The order total.
+     */
+    public void recordOrderAfterCommit(Long userId, double amount) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordOrder(userId, amount);
+                }
+            });
+        } else {
+            recordOrder(userId, amount);
+        }
+    }
+
+    /**
+     * Adds one order and its amount to the user's pending delta.
+     * @param userId The ID of the user.
+     * @param amount The order total.
+     */
+    public void recordOrder(Long userId, double amount) {
+        stripeFor(userId).add(userId, 1, amount);
+    }
+
+    /**
+     * Drops the user's pending delta once the surrounding transaction commits, or immediately if
+     * there is no transaction, e.g. because the transaction overwrites their totals. A rolled back
+     * transaction keeps the delta.
+     * @param userId The ID of the user.
+     */
+    public void discardAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discard(userId);
+                }
+            });
+        } else {
+            discard(userId);
+        }
+    }
+
+    /**
+     * Drops the user's pending delta. Waits for a flush in progress, so a delta that flush already
+     * drained is written before the discard returns rather than after.
+     * @param userId The ID of the user.
+     */
+    public void discard(Long userId) {
+        flushLock.lock();
+        try {
+            stripeFor(userId).discard(userId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of users with a pending, not yet flushed delta.
+     */
+    public int pendingUsers() {
+        int pending = 0;
+        for (Stripe stripe : stripes) {
+            pending += stripe.size();
+        }
+        return pending;
+    }
+
+    /**
+     * Applies all pending deltas to the database. Deltas of a failed flush are kept for the next one.
+     */
+    @Scheduled(fixedDelayString = "${user-stats.flush-interval-millis:1000}")
+    public void flush() {
+        // A lock rather than a monitor: the flush does JDBC I/O and must not pin a virtual thread's carrier
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        Map<Long, Delta> pending = drainAll();
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object[]> updates = new ArrayList<>(pending.size());
+            pending.forEach((userId, delta) -> updates.add(new Object[]{delta.orders, delta.spent, userId}));
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INCREMENT_SQL, updates, properties.getBatchSize(), (ps, args) -> {
+                        ps.setLong(1, (Long) args[0]);
+                        ps.setDouble(2, (Double) args[1]);
+                        ps.setLong(3, (Long) args[2]);
+                    }));
+            // Cached users now carry outdated totals
+            pending.keySet().forEach(userCache::invalidate);
+        } catch (RuntimeException ex) {
+            logger.warn("Flushing user stats for {} users failed, retrying on next flush", pending.size(), ex);
+            restore(pending);
+        }
+    }
+
+    /**
+     * Re-applies deltas journaled by a previous shutdown. The journal is parsed completely and
+     * deleted before any delta is applied, so a failure can never apply part of it twice; an
+     * unreadable journal is left in place and nothing is applied.
+     */
+    @PostConstruct
+    void replayJournal() {
+        Path journal = Paths.get(properties.getJournalPath());
+        if (!Files.exists(journal)) {
+            return;
+        }
+        Map<Long, Delta> journaled = new TreeMap<>();
+        try {
+            for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(",");
+                if (fields.length == 3) {
+                    Delta delta = journaled.computeIfAbsent(Long.valueOf(fields[0]), id -> new Delta());
+                    delta.orders += Long.parseLong(fields[1]);
+                    delta.spent += Double.parseDouble(fields[2]);
+                }
+            }
+            Files.delete(journal);
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Could not replay user stats journal {}", journal, ex);
+            return;
+        }
+        restore(journaled);
+        logger.info("Replayed user stats journal for {} users", journaled.size());
+    }
+
+    /**
+     * Flushes on shutdown and journals whatever could not be flushed.
+     */
+    @PreDestroy
+    void shutdown() {
+        flushLock.lock();
+        try {
+            flushPending();
+            journalRemaining();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void journalRemaining() {
+        Map<Long, Delta> remaining = drainAll();
+        if (remaining.isEmpty()) {
+            return;
+        }
+        Path journal = Paths.get(properties.getJournalPath());
+        List<String> lines = new ArrayList<>(remaining.size());
+        remaining.forEach((userId, delta) -> lines.add(userId + "," + delta.orders + "," + delta.spent));
+        try {
+            if (journal.getParent() != null) {
+                Files.createDirectories(journal.getParent());
+            }
+            Files.write(journal, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logger.warn("Journaled unflushed user stats for {} users to {}", remaining.size(), journal);
+        } catch (IOException ex) {
+            logger.error("Lost unflushed user stats, could not write journal {}: {}", journal, lines, ex);
+        }
+    }
+
+    private Map<Long, Delta> drainAll() {
+        Map<Long, Delta> drained = new TreeMap<>();
+        for (Stripe stripe : stripes) {
+            drained.putAll(stripe.drain());
+        }
+        return drained;
+    }
+
+    private void restore(Map<Long, Delta> deltas) {
+        deltas.forEach((userId, delta) -> stripeFor(userId).add(userId, delta.orders, delta.spent));
+    }
+
+    private Stripe stripeFor(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+
+    /**
+     * A lock-protected partition of the pending deltas. Order placement records into it after commit,
+     * possibly on a virtual thread, so the lock is a {@link ReentrantLock} rather than a monitor.
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<Long, Delta> deltas = new HashMap<>();
+
+        void add(Long userId, long orders, double spent) {
+            lock.lock();
+            try {
+                Delta delta = deltas.computeIfAbsent(userId, id -> new Delta());
+                delta.orders += orders;
+                delta.spent += spent;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void discard(Long userId) {
+            lock.lock();
+            try {
+                deltas.remove(userId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<Long, Delta> drain() {
+            lock.lock();
+            try {
+                Map<Long, Delta> drained = deltas;
+                deltas = new HashMap<>();
+                return drained;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return deltas.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Pending change of a user's totals.
+     */
+    private static final class Delta {
+        private long orders;
+        private double spent;
+    }
+}
@@ -0,0 +1,278 @@
+package com.app.talonone;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive (AIMD) concurrency limit of one Talon.One operation.
+ * <p>
+ * Up to {@code limit} calls may be in flight; further callers wait in a bounded FIFO queue for at
+ * most {@code maxQueueNanos}. Each successful call completed while the limit was at least half
+ * used raises the limit by {@code 1/limit}, i.e. by about one per round trip. A dropped call
+ * (throttled or timed out) multiplies it by {@code backoffRatio}; drops of calls started before the
+ * last decrease are not counted again, so one burst of 429s backs off once. A <code>Retry-After</code>
+ * pause holds back new calls until it ends; callers that could not be served within their queue
+ * time are rejected right away.
+ * </p>
+ *
+ * <p>
+ * Limiter and waiter state are guarded by one {@link ReentrantLock}; callers are completed only
+ * after it is released. Unlike a monitor, the lock lets a waiting virtual thread unmount.
+ * </p>
+ */
+class ConcurrencyLimiter {
+
+    enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    enum RejectReason { QUEUE_FULL, QUEUE_TIMEOUT, RETRY_AFTER }
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final int maxQueueSize;
+    private final long maxQueueNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt;
+    private boolean paused;
+    private long pausedUntil;
+    private boolean drainScheduled;
+
+    ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                       int maxQueueSize, long maxQueueNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, this.maxLimit));
+        this.backoffRatio = backoffRatio;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueNanos = maxQueueNanos;
+        this.lastDecreaseAt = System.nanoTime();
+    }
+
+    /**
+     * Waits for a permit. Every granted permit must be returned with exactly one call of
+     * {@link #release(long, Outcome)}.
+     *
+     * @return A Mono emitting the time spent queued in nanoseconds, or erroring with
+     *         {@link RejectedException} if no permit could be granted in time.
+     */
+    Mono<Long> acquire() {
+        return Mono.<Long>create(sink -> {
+                    Waiter waiter = new Waiter(sink, System.nanoTime());
+                    sink.onCancel(() -> cancel(waiter));
+                    RejectReason rejection = enqueue(waiter);
+                    if (rejection != null) {
+                        sink.error(new RejectedException(rejection));
+                    } else {
+                        drain();
+                    }
+                })
+                .timeout(Duration.ofNanos(maxQueueNanos), Mono.error(() -> new RejectedException(RejectReason.QUEUE_TIMEOUT)));
+    }
+
+    /**
+     * Takes a permit only if one is free right now: no Retry-After pause, nobody queued and the limit
+     * not reached. Never queues. A granted permit must be returned with {@link #release(long, Outcome)}.
+     *
+     * @return true if a permit was granted.
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if ((paused && pausedUntil - System.nanoTime() > 0) || !waiters.isEmpty() || inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and adapts the limit to the call's outcome.
+     *
+     * @param startedAt {@link System#nanoTime()} when the call was issued.
+     * @param outcome   How the call ended.
+     */
+    void release(long startedAt, Outcome outcome) {
+        lock.lock();
+        try {
+            if (outcome == Outcome.SUCCESS && inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            } else if (outcome == Outcome.DROPPED && startedAt - lastDecreaseAt > 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = System.nanoTime();
+            }
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    /**
+     * Holds back new calls for the given time, e.g. as requested by a <code>Retry-After</code> header.
+     *
+     * @param pauseNanos Length of the pause.
+     */
+    void pause(long pauseNanos) {
+        long until = System.nanoTime() + pauseNanos;
+        lock.lock();
+        try {
+            if (!paused || until - pausedUntil > 0) {
+                paused = true;
+                pausedUntil = until;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double limit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private RejectReason enqueue(Waiter waiter) {
+        lock.lock();
+        try {
+            if (waiter.cancelled) {
+                return null;
+            }
+            long pauseRemaining = paused ? pausedUntil - waiter.enqueuedAt : 0;
+            if (pauseRemaining > maxQueueNanos) {
+                return RejectReason.RETRY_AFTER;
+            }
+            if (waiters.size() >= maxQueueSize) {
+                return RejectReason.QUEUE_FULL;
+            }
+            waiters.add(waiter);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        boolean release;
+        lock.lock();
+        try {
+            waiter.cancelled = true;
+            // Granted, but the permit never reached the caller
+            release = !waiters.remove(waiter) && waiter.granted;
+        } finally {
+            lock.unlock();
+        }
+        if (release) {
+            release(waiter.enqueuedAt, Outcome.IGNORED);
+        }
+    }
+
+    /**
+     * Grants permits to queued callers while the limit allows, outside of any Retry-After pause.
+     */
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (paused && pausedUntil - now > 0) {
+                scheduleDrain(pausedUntil - now);
+                return;
+            }
+            paused = false;
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                Waiter waiter = waiters.poll();
+                waiter.granted = true;
+                inFlight++;
+                granted.add(waiter);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Waiter waiter : granted) {
+            waiter.sink.success(now - waiter.enqueuedAt);
+        }
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled || waiters.isEmpty()) {
+            return;
+        }
+        drainScheduled = true;
+        Schedulers.parallel().schedule(() -> {
+            lock.lock();
+            try {
+                drainScheduled = false;
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A caller waiting for a permit; state guarded by the limiter's lock.
+     */
+    private static final class Waiter {
+        private final MonoSink<Long> sink;
+        private final long enqueuedAt;
+        private boolean granted;
+        private boolean cancelled;
+
+        private Waiter(MonoSink<Long> sink, long enqueuedAt) {
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * Signals that a caller was not granted a permit.
+     */
+    static final class RejectedException extends RuntimeException {
+        private final RejectReason reason;
+
+        RejectedException(RejectReason reason) {
+            super("Talon.One concurrency limit: " + reason, null, false, false);
+            this.reason = reason;
+        }
+
+        RejectReason reason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.app.talonone;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling window of call latencies with cheap percentile lookups.
+ * <p>
+ * The most recent {@code windowSize} samples are kept in a ring buffer. Percentiles are read from a
+ * sorted snapshot. Once {@code windowSize / 16} new samples have arrived, the next lookup re-sorts the
+ * window on the calling (request) thread; only one thread sorts at a time, concurrent lookups keep
+ * reading the previous snapshot. Sorting costs O(windowSize log windowSize) and is amortized over
+ * those samples.
+ * </p>
+ */
+class LatencyTracker {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final int refreshEvery;
+
+    private volatile Snapshot snapshot = new Snapshot(0, new long[0]);
+
+    LatencyTracker(int windowSize) {
+        this.samples = new AtomicLongArray(windowSize);
+        this.refreshEvery = Math.max(1, windowSize / 16);
+    }
+
+    /**
+     * Records the latency of a successful call, or the timeout of a timed-out one.
+     */
+    void record(long nanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    /**
+     * @return Number of samples recorded since startup.
+     */
+    long sampleCount() {
+        return recorded.get();
+    }
+
+    /**
+     * Returns the latency at the given percentile of the current window.
+     *
+     * @param percentile Percentile between 0 and 1, e.g. 0.95.
+     * @return Latency in nanoseconds, or 0 if nothing was recorded yet.
+     */
+    long percentileNanos(double percentile) {
+        Snapshot current = refreshIfStale();
+        long[] sorted = current.sorted;
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    private Snapshot refreshIfStale() {
+        Snapshot current = snapshot;
+        long count = recorded.get();
+        if (count - current.recordedAt < refreshEvery || !refreshing.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            int size = (int) Math.min(count, samples.length());
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            current = new Snapshot(count, sorted);
+            snapshot = current;
+            return current;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private record Snapshot(long recordedAt, long[] sorted) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.talonone;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight, further callers with an
+ * equal key subscribe to that call and receive its result (or error) instead of starting their own.
+ * <p>
+ * Nothing is cached beyond the flight itself; the key is released as soon as the call terminates,
+ * so the next caller starts a fresh call. Keys must implement {@code equals}/{@code hashCode} and
+ * must not be mutated while in flight.
+ * </p>
+ *
+ * @param <K> Key type.
+ * @param <V> Result type.
+ */
+class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Joins the in-flight call for the key, or starts one.
+     *
+     * @param key  Identity of the call.
+     * @param call Supplies the remote call; invoked only by the caller that starts the flight.
+     * @return The shared result.
+     */
+    Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            Mono<V> flight = newFlight(key, call);
+            Mono<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            return flight;
+        });
+    }
+
+    /**
+     * @return Number of callers that joined an in-flight call instead of issuing their own.
+     */
+    long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private Mono<V> newFlight(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        // cache(): joiners replay the single upstream result; a cancelling joiner does not cancel the others
+        Mono<V> flight = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(flight);
+        return flight;
+    }
+}
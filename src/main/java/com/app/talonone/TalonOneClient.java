@@ -1,14 +1,27 @@
-package talonone;
+package com.app.talonone;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import com.app.config.TalonOneProperties;
+import com.app.model.CampaignRule;
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * TalonOneClient is a reusable, centralized client for interacting with Talon.One's Integration API.
  * <p>
@@ -23,6 +36,13 @@ import reactor.core.publisher.Mono;
  * <ul>
  *   <li><code>talonone.base-url</code> - The base URL of the Talon.One API (e.g., https://your-company.talon.one)</li>
  *   <li><code>talonone.api-key</code> - The API key for authenticating requests</li>
+ *   <li><code>talonone.endpoints[n].*</code> - Alternatively, several deployments (name, base URL, API key)
+ *       routed between by {@link TalonOneRouter}</li>
+ *   <li><code>talonone.http.*</code> - Connection pool, HTTP/2 and timeout settings of the shared transport</li>
+ *   <li><code>talonone.resilience.*</code> - Circuit breaker, adaptive timeout and hedging settings</li>
+ *   <li><code>talonone.limiter.*</code> - Adaptive concurrency limits and queueing per operation</li>
+ *   <li><code>talonone.coalesced-operations</code> - Operations whose concurrent identical calls share
+ *       one in-flight request (default PROFILE, SESSION)</li>
  * </ul>
  * </p>
  *
@@ -33,82 +53,145 @@ import reactor.core.publisher.Mono;
  * private TalonOneClient talonOneClient;
  *
  * talonOneClient.updateProfile("user123", profileDto);
+ * talonOneClient.updateProfilesReactive(List.of(profileDto, otherProfileDto)).block();
  * RewardsResponse response = talonOneClient.evaluateSession(sessionDto);
  * talonOneClient.confirmLoyalty("user123", 99.99);
+ *
+ * // Non-blocking, for the reactive checkout pipeline
+ * Mono&lt;RewardsResponse&gt; rewards = talonOneClient.evaluateSessionReactive(sessionDto);
  * </pre>
  * </p>
  *
  * <p>
- * <b>Note:</b> Replace <code>ProfileDTO</code>, <code>SessionDTO</code>, and <code>RewardsResponse</code>
- * with your actual DTO classes as needed.
+ * Payloads are typed and encoded/decoded by {@link TalonOneCodec}.
  * </p>
  */
 @Component
 public class TalonOneClient {
 
-    @Value("${talonone.base-url}")
-    private String baseUrl;
-
-    @Value("${talonone.api-key}")
-    private String apiKey;
+    private final TalonOneRouter router;
 
     private final WebClient webClient;
 
+    private final TalonOneResilience resilience;
+
+    private final TalonOneCodec codec;
+
+    private final Set<TalonOneOperation> coalescedOperations;
+
+    private final SingleFlight<ProfileUpdate, Void> profileFlights = new SingleFlight<>();
+
+    private final SingleFlight<SessionDTO, RewardsResponse> sessionFlights = new SingleFlight<>();
+
     /**
-     * Constructs a TalonOneClient with a configured WebClient.
+     * Constructs a TalonOneClient on top of the shared, pooled Talon.One WebClient.
+     *
+     * @param talonOneProperties Talon.One API settings.
+     * @param router             Picks the Talon.One endpoint of every request.
+     * @param talonOneWebClient  WebClient configured in {@link com.app.config.TalonOneTransportConfig}.
+     * @param resilience         Circuit breaker, timeout and hedging policies applied to every call.
+     * @param codec              Typed JSON codec of the Talon.One payloads.
      */
-    public TalonOneClient() {
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+    public TalonOneClient(TalonOneProperties talonOneProperties, TalonOneRouter router, WebClient talonOneWebClient,
+                          TalonOneResilience resilience, TalonOneCodec codec) {
+        this.router = router;
+        this.webClient = talonOneWebClient;
+        this.resilience = resilience;
+        this.codec = codec;
+        this.coalescedOperations = talonOneProperties.getCoalescedOperations();
     }
 
     /**
      * Updates a user profile in Talon.One.
      *
      * @param userId The unique identifier of the user.
-     * @param dto    The profile data to update (ProfileDTO).
+     * @param dto    The profile data to update.
      * @throws TalonOneClientException if the API call fails.
      */
-    public void updateProfile(String userId, Object dto) {
-        String url = String.format("%s/v1/profiles/%s", baseUrl, userId);
-        try {
-            webClient.put()
-                    .uri(url)
-                    .bodyValue(dto)
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-        } catch (WebClientResponseException ex) {
-            throw new TalonOneClientException("Failed to update profile: " + ex.getResponseBodyAsString(), ex.getStatusCode(), ex);
-        } catch (Exception ex) {
-            throw new TalonOneClientException("Failed to update profile: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR, ex);
-        }
+    public void updateProfile(String userId, ProfileDTO dto) {
+        updateProfileReactive(userId, dto).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #updateProfile(String, ProfileDTO)}.
+     *
+     * @param userId The unique identifier of the user.
+     * @param dto    The profile data to update.
+     * @return A Mono completing when Talon.One has accepted the update, or erroring with
+     *         {@link TalonOneClientException} if the API call fails.
+     */
+    public Mono<Void> updateProfileReactive(String userId, ProfileDTO dto) {
+        Supplier<Mono<Void>> call = () -> resilience.execute(TalonOneOperation.PROFILE, () -> routed(userId, endpoint -> webClient.put()
+                .uri(endpoint.baseUrl() + "/v1/profiles/{userId}", userId)
+                .headers(endpoint::authorize)
+                .body(codec.profile(dto))
+                .retrieve()
+                .toBodilessEntity()
+                .then()));
+        Mono<Void> update = coalescedOperations.contains(TalonOneOperation.PROFILE)
+                ? profileFlights.execute(new ProfileUpdate(userId, dto), call)
+                : call.get();
+        return update.onErrorMap(ex -> toClientException("Failed to update profile", ex));
+    }
+
+    /**
+     * Updates several user profiles in Talon.One, with one request per endpoint the users are routed
+     * to. Bulk updates are not coalesced.
+     *
+     * @param profiles The profiles to update, each identified by its user ID.
+     * @return A Mono completing when Talon.One has accepted all updates, or erroring with
+     *         {@link TalonOneClientException} if any API call fails.
+     */
+    public Mono<Void> updateProfilesReactive(List<ProfileDTO> profiles) {
+        return Mono.defer(() -> {
+                    Map<TalonOneRouter.Endpoint, List<ProfileDTO>> byEndpoint = new LinkedHashMap<>();
+                    for (ProfileDTO profile : profiles) {
+                        byEndpoint.computeIfAbsent(router.route(profile.getUserId()), endpoint -> new ArrayList<>()).add(profile);
+                    }
+                    return Flux.fromIterable(byEndpoint.entrySet())
+                            .flatMap(group -> resilience.execute(TalonOneOperation.PROFILE,
+                                    () -> router.observe(group.getKey(), webClient.put()
+                                            .uri(group.getKey().baseUrl() + "/v1/profiles")
+                                            .headers(group.getKey()::authorize)
+                                            .body(codec.profiles(group.getValue()))
+                                            .retrieve()
+                                            .toBodilessEntity()
+                                            .then())))
+                            .then();
+                })
+                .onErrorMap(ex -> toClientException("Failed to update profiles", ex));
     }
 
     /**
      * Evaluates a session for rewards and discounts in Talon.One.
      *
-     * @param dto The session data (SessionDTO).
-     * @return The rewards response (RewardsResponse).
+     * @param dto The session data.
+     * @return The rewards response.
      * @throws TalonOneClientException if the API call fails.
      */
-    public Object evaluateSession(Object dto) {
-        String url = String.format("%s/v1/sessions", baseUrl);
-        try {
-            return webClient.post()
-                    .uri(url)
-                    .bodyValue(dto)
-                    .retrieve()
-                    .bodyToMono(Object.class) // Replace Object.class with RewardsResponse.class
-                    .block();
-        } catch (WebClientResponseException ex) {
-            throw new TalonOneClientException("Failed to evaluate session: " + ex.getResponseBodyAsString(), ex.getStatusCode(), ex);
-        } catch (Exception ex) {
-            throw new TalonOneClientException("Failed to evaluate session: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR, ex);
-        }
+    public RewardsResponse evaluateSession(SessionDTO dto) {
+        return evaluateSessionReactive(dto).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #evaluateSession(SessionDTO)}.
+     *
+     * @param dto The session data.
+     * @return A Mono emitting the rewards response, or erroring with
+     *         {@link TalonOneClientException} if the API call fails.
+     */
+    public Mono<RewardsResponse> evaluateSessionReactive(SessionDTO dto) {
+        Supplier<Mono<RewardsResponse>> call = () -> resilience.execute(TalonOneOperation.SESSION, () -> routed(dto.getUserId(), endpoint -> webClient.post()
+                .uri(endpoint.baseUrl() + "/v1/sessions")
+                .headers(endpoint::authorize)
+                .body(codec.session(dto))
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(codec::readRewards)));
+        Mono<RewardsResponse> evaluation = coalescedOperations.contains(TalonOneOperation.SESSION)
+                ? sessionFlights.execute(dto, call)
+                : call.get();
+        return evaluation.onErrorMap(ex -> toClientException("Failed to evaluate session", ex));
     }
 
     /**
@@ -119,19 +202,83 @@ public class TalonOneClient {
      * @throws TalonOneClientException if the API call fails.
      */
     public void confirmLoyalty(String userId, double totalAmount) {
-        String url = String.format("%s/v1/loyalty/%s/confirm", baseUrl, userId);
-        try {
-            webClient.post()
-                    .uri(url)
-                    .bodyValue(new LoyaltyConfirmRequest(totalAmount))
-                    .retrieve()
-                    .toBodilessEntity()
-                    .block();
-        } catch (WebClientResponseException ex) {
-            throw new TalonOneClientException("Failed to confirm loyalty: " + ex.getResponseBodyAsString(), ex.getStatusCode(), ex);
-        } catch (Exception ex) {
-            throw new TalonOneClientException("Failed to confirm loyalty: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR, ex);
+        confirmLoyaltyReactive(userId, totalAmount).block();
+    }
+
+    /**
+     * Non-blocking variant of {@link #confirmLoyalty(String, double)}.
+     *
+     * @param userId      The unique identifier of the user.
+     * @param totalAmount The total amount for which loyalty points are confirmed.
+     * @return A Mono completing when Talon.One has confirmed the loyalty usage, or erroring with
+     *         {@link TalonOneClientException} if the API call fails.
+     */
+    public Mono<Void> confirmLoyaltyReactive(String userId, double totalAmount) {
+        return resilience.execute(TalonOneOperation.LOYALTY, () -> routed(userId, endpoint -> webClient.post()
+                        .uri(endpoint.baseUrl() + "/v1/loyalty/{userId}/confirm", userId)
+                        .headers(endpoint::authorize)
+                        .body(codec.loyaltyConfirm(new LoyaltyConfirmRequest(totalAmount)))
+                        .retrieve()
+                        .toBodilessEntity()
+                        .then()))
+                .onErrorMap(ex -> toClientException("Failed to confirm loyalty", ex));
+    }
+
+    /**
+     * Fetches the currently running campaigns, for in-process evaluation by the local rewards engine.
+     *
+     * @return A Mono emitting the active campaign rules, or erroring with
+     *         {@link TalonOneClientException} if the API call fails.
+     */
+    public Mono<List<CampaignRule>> fetchActiveCampaignsReactive() {
+        return resilience.execute(TalonOneOperation.CAMPAIGNS, () -> routed(null, endpoint -> webClient.get()
+                        .uri(endpoint.baseUrl() + "/v1/campaigns?state=running")
+                        .headers(endpoint::authorize)
+                        .retrieve()
+                        .bodyToFlux(CampaignRule.class)
+                        .collectList()))
+                .onErrorMap(ex -> toClientException("Failed to fetch campaigns", ex));
+    }
+
+    /**
+     * @return Number of callers that shared an identical in-flight call instead of issuing their own.
+     */
+    public long coalescedCount(TalonOneOperation operation) {
+        return switch (operation) {
+            case PROFILE -> profileFlights.coalescedCount();
+            case SESSION -> sessionFlights.coalescedCount();
+            default -> 0;
+        };
+    }
+
+    /**
+     * Sends one attempt to the endpoint picked for the user (or the fastest one when there is no
+     * user), recording its latency and outcome for routing. The endpoint is chosen per attempt.
+     */
+    private <T> Mono<T> routed(String userId, Function<TalonOneRouter.Endpoint, Mono<T>> request) {
+        return Mono.defer(() -> {
+            TalonOneRouter.Endpoint endpoint = userId != null ? router.route(userId) : router.route();
+            return router.observe(endpoint, request.apply(endpoint));
+        });
+    }
+
+    /**
+     * Maps any failure of a Talon.One call onto a {@link TalonOneClientException}, keeping the
+     * upstream HTTP status when Talon.One answered with an error response.
+     */
+    private static TalonOneClientException toClientException(String message, Throwable ex) {
+        if (ex instanceof TalonOneClientException clientException) {
+            return clientException;
+        }
+        if (ex instanceof WebClientResponseException responseException) {
+            HttpStatus status = HttpStatus.resolve(responseException.getStatusCode().value());
+            return new TalonOneClientException(message + ": " + responseException.getResponseBodyAsString(),
+                    status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR, ex);
         }
+        if (ex instanceof TimeoutException) {
+            return new TalonOneClientException(message + ": timed out", HttpStatus.GATEWAY_TIMEOUT, ex);
+        }
+        return new TalonOneClientException(message + ": " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR, ex);
     }
 
     /**
@@ -148,6 +295,42 @@ public class TalonOneClient {
         public HttpStatus getStatus() {
             return status;
         }
+
+        /**
+         * @return true for failures of Talon.One's availability rather than answers about the
+         *         request: server errors, timeouts, connection failures, throttling and an open
+         *         circuit. Other client errors (invalid coupon, unknown session, auth) are answers.
+         */
+        public boolean isTransient() {
+            return status == null || status.is5xxServerError() || status == HttpStatus.TOO_MANY_REQUESTS;
+        }
+    }
+
+    /**
+     * Thrown without contacting Talon.One while the circuit breaker of an operation is open.
+     */
+    public static class CircuitOpenException extends TalonOneClientException {
+
+        public CircuitOpenException(TalonOneOperation operation) {
+            super("Talon.One " + operation + " circuit breaker is open", HttpStatus.SERVICE_UNAVAILABLE, null);
+        }
+    }
+
+    /**
+     * Thrown without contacting Talon.One when the operation's concurrency limiter cannot grant a
+     * permit in time, e.g. while honoring a <code>Retry-After</code> pause.
+     */
+    public static class ThrottledException extends TalonOneClientException {
+
+        public ThrottledException(TalonOneOperation operation, String reason) {
+            super("Talon.One " + operation + " call throttled locally: " + reason, HttpStatus.TOO_MANY_REQUESTS, null);
+        }
+    }
+
+    /**
+     * Coalescing key of a profile update: only identical updates of the same user share a call.
+     */
+    private record ProfileUpdate(String userId, ProfileDTO profile) {
     }
 
     /**
@@ -169,10 +352,4 @@ public class TalonOneClient {
             this.totalAmount = totalAmount;
         }
     }
-
-    // --- DTO Placeholders ---
-    // Replace Object with your actual DTO classes as needed.
-    // public static class ProfileDTO { ... }
-    // public static class SessionDTO { ... }
-    // public static class RewardsResponse { ... }
 }
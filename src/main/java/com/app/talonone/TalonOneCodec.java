@@ -0,0 +1,114 @@
+package com.app.talonone;
+
+import com.app.model.ProfileDTO;
+import com.app.model.RewardsResponse;
+import com.app.model.SessionDTO;
+import com.app.talonone.TalonOneClient.LoyaltyConfirmRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Typed JSON codec for the Talon.One payloads.
+ * <p>
+ * Readers and writers are built once from the application's {@link ObjectMapper}, so no per-call
+ * type resolution happens. Request bodies are serialized straight into a buffer allocated by the
+ * connection (a pooled Netty buffer), and responses are parsed straight from the received buffers
+ * into {@link RewardsResponse}; fields the application does not map, such as Talon.One's effects
+ * and session echo, are skipped by the parser instead of being materialized.
+ * </p>
+ */
+@Component
+public class TalonOneCodec {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final ObjectWriter profileWriter;
+    private final ObjectWriter profilesWriter;
+    private final ObjectWriter sessionWriter;
+    private final ObjectWriter loyaltyConfirmWriter;
+    private final ObjectReader rewardsReader;
+
+    public TalonOneCodec(ObjectMapper objectMapper) {
+        this.profileWriter = objectMapper.writerFor(ProfileDTO.class);
+        this.profilesWriter = objectMapper.writerFor(new TypeReference<List<ProfileDTO>>() { });
+        this.sessionWriter = objectMapper.writerFor(SessionDTO.class);
+        this.loyaltyConfirmWriter = objectMapper.writerFor(LoyaltyConfirmRequest.class);
+        this.rewardsReader = objectMapper.readerFor(RewardsResponse.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    BodyInserter<ProfileDTO, ClientHttpRequest> profile(ProfileDTO profile) {
+        return json(profileWriter, profile);
+    }
+
+    BodyInserter<List<ProfileDTO>, ClientHttpRequest> profiles(List<ProfileDTO> profiles) {
+        return json(profilesWriter, profiles);
+    }
+
+    BodyInserter<SessionDTO, ClientHttpRequest> session(SessionDTO session) {
+        return json(sessionWriter, session);
+    }
+
+    BodyInserter<LoyaltyConfirmRequest, ClientHttpRequest> loyaltyConfirm(LoyaltyConfirmRequest request) {
+        return json(loyaltyConfirmWriter, request);
+    }
+
+    /**
+     * Decodes a session evaluation response and releases the buffer.
+     *
+     * @param buffer Response body, joined into one (possibly composite) buffer.
+     * @return The rewards.
+     */
+    RewardsResponse readRewards(DataBuffer buffer) {
+        try (InputStream in = buffer.asInputStream(true)) {
+            return rewardsReader.readValue(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Malformed Talon.One session response", ex);
+        }
+    }
+
+    /**
+     * Encodes a session request the same way as on the wire, for benchmarks and diagnostics.
+     */
+    public byte[] writeSession(SessionDTO session) throws IOException {
+        return sessionWriter.writeValueAsBytes(session);
+    }
+
+    /**
+     * Decodes a session evaluation response from bytes, for benchmarks and diagnostics.
+     */
+    public RewardsResponse readRewards(byte[] json) throws IOException {
+        return rewardsReader.readValue(json);
+    }
+
+    private static <T> BodyInserter<T, ClientHttpRequest> json(ObjectWriter writer, T value) {
+        return (request, context) -> {
+            DataBuffer buffer = request.bufferFactory().allocateBuffer(INITIAL_BUFFER_SIZE);
+            try (OutputStream out = buffer.asOutputStream()) {
+                writer.writeValue(out, value);
+            } catch (IOException | RuntimeException ex) {
+                DataBufferUtils.release(buffer);
+                return Mono.error(ex);
+            }
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.getHeaders().setContentLength(buffer.readableByteCount());
+            return request.writeWith(Mono.just(buffer));
+        };
+    }
+}
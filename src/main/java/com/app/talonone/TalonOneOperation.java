@@ -0,0 +1,28 @@
+package com.app.talonone;
+
+/**
+ * Talon.One operations issued by {@link TalonOneClient}. Resilience state (circuit breaker,
+ * latency statistics) is kept separately per operation.
+ */
+public enum TalonOneOperation {
+
+    /**
+     * PUT /v1/profiles/{id} and bulk PUT /v1/profiles - idempotent.
+     */
+    PROFILE,
+
+    /**
+     * POST /v1/sessions - evaluation of the same payload yields the same result.
+     */
+    SESSION,
+
+    /**
+     * POST /v1/loyalty/{id}/confirm - not idempotent, never hedged.
+     */
+    LOYALTY,
+
+    /**
+     * GET /v1/campaigns - background refresh of the local rewards engine.
+     */
+    CAMPAIGNS
+}
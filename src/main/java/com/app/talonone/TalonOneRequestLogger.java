@@ -0,0 +1,75 @@
+package com.app.talonone;
+
+import com.app.config.TalonOneProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sampled, rate-limited log of outbound Talon.One requests (method and URI only, never headers or
+ * bodies).
+ * <p>
+ * Only <code>talonone.logging.sample-rate</code> of the requests are logged, and at most
+ * <code>talonone.logging.max-per-second</code> per second, so the log volume stays flat however high
+ * the request rate. Log events are written through the asynchronous appender configured in
+ * <code>logback-spring.xml</code>. Per-request timing is available from the
+ * <code>talonone.requests</code> metrics instead.
+ * </p>
+ */
+@Component
+public class TalonOneRequestLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(TalonOneRequestLogger.class);
+
+    private final double sampleRate;
+    private final int maxPerSecond;
+
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window(Long.MIN_VALUE));
+
+    public TalonOneRequestLogger(TalonOneProperties talonOneProperties) {
+        this.sampleRate = talonOneProperties.getLogging().getSampleRate();
+        this.maxPerSecond = talonOneProperties.getLogging().getMaxPerSecond();
+    }
+
+    /**
+     * Logs the request if it is sampled and the per-second budget is not exhausted.
+     *
+     * @param method HTTP method.
+     * @param uri    Request URI.
+     */
+    public void log(HttpMethod method, URI uri) {
+        if (!logger.isInfoEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate || !tryAcquire()) {
+            return;
+        }
+        logger.info("Talon.One API Request (sampled): {} {}", method, uri);
+    }
+
+    private boolean tryAcquire() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        Window current = window.get();
+        if (current.second() != second) {
+            // The first thread to see a new second starts its window; everyone else counts into the winner's
+            Window next = new Window(second);
+            current = window.compareAndSet(current, next) ? next : window.get();
+        }
+        return current.count().incrementAndGet() <= maxPerSecond;
+    }
+
+    /**
+     * One second of the rate limit with its own counter, so starting a new second never resets a
+     * counter other threads are still incrementing.
+     */
+    private record Window(long second, AtomicLong count) {
+
+        Window(long second) {
+            this(second, new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.app.talonone;
+
+import com.app.config.TalonOneProperties;
+import com.app.talonone.ConcurrencyLimiter.RejectedException;
+import com.app.talonone.TalonOneClient.CircuitOpenException;
+import com.app.talonone.TalonOneClient.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Resilience policies wrapped around every {@link TalonOneClient} call.
+ * <p>
+ * Per {@link TalonOneOperation}:
+ * <ul>
+ *   <li>an adaptive concurrency limiter ({@link ConcurrencyLimiter}) queues calls beyond the current
+ *       limit, backs off when Talon.One throttles or times out, honors <code>Retry-After</code>, and
+ *       fails calls it cannot serve in time with {@link ThrottledException}. Every operation has its
+ *       own limit and queue, so session previews cannot starve loyalty confirmations;</li>
+ *   <li>a circuit breaker fails calls fast with {@link CircuitOpenException} while Talon.One is unhealthy;</li>
+ *   <li>each attempt times out after a multiple of the observed p99 latency, bounded by
+ *       <code>talonone.resilience.min-timeout</code>/<code>max-timeout</code>;</li>
+ *   <li>idempotent operations send a second, hedged attempt once the first has been outstanding for the
+ *       observed p95 latency, and use whichever answers first, within a hedge budget. The hedge takes
+ *       a limiter permit of its own and is skipped if none is free at that moment.</li>
+ * </ul>
+ * Server errors, timeouts and connection failures count as breaker failures. 429 responses are left
+ * to the limiter, as are other client errors.
+ * </p>
+ *
+ * <p>
+ * Metrics, tagged by <code>operation</code>:
+ * <ul>
+ *   <li><code>talonone.requests</code> - latency of every attempt, tagged with <code>outcome</code> and
+ *       <code>status</code> (HTTP status, or TIMEOUT/IO_ERROR/CANCELLED when there was none);</li>
+ *   <li><code>talonone.requests.active</code> - attempts currently in flight;</li>
+ *   <li><code>talonone.circuit.state</code> (0 closed, 1 open, 2 half-open), <code>talonone.circuit.rejections</code>;</li>
+ *   <li><code>talonone.timeout</code> - current adaptive timeout, <code>talonone.hedges</code> - hedged attempts;</li>
+ *   <li><code>talonone.limiter.limit</code>, <code>talonone.limiter.queued</code> - current limit and waiting calls,
+ *       <code>talonone.limiter.queue</code> - time spent waiting for a permit,
+ *       <code>talonone.limiter.rejections</code> - calls rejected, tagged with <code>reason</code>.</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class TalonOneResilience {
+
+    private static final String REQUESTS_METRIC = "talonone.requests";
+
+    private final TalonOneProperties.Resilience properties;
+    private final TalonOneProperties.Limiter limiterProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<TalonOneOperation, OperationState> states = new EnumMap<>(TalonOneOperation.class);
+
+    public TalonOneResilience(TalonOneProperties talonOneProperties, MeterRegistry meterRegistry) {
+        this.properties = talonOneProperties.getResilience();
+        this.limiterProperties = talonOneProperties.getLimiter();
+        this.meterRegistry = meterRegistry;
+        for (TalonOneOperation operation : TalonOneOperation.values()) {
+            OperationState state = new OperationState(operation, properties, limiterProperties, meterRegistry);
+            states.put(operation, state);
+            registerGauges(operation, state);
+        }
+    }
+
+    /**
+     * Executes a Talon.One call under the operation's concurrency limit, breaker, timeout and hedging policy.
+     *
+     * @param operation The Talon.One operation.
+     * @param call      Supplies a fresh, cold Mono per attempt.
+     * @param <T>       Result type.
+     * @return The result of the first successful attempt.
+     */
+    public <T> Mono<T> execute(TalonOneOperation operation, Supplier<Mono<T>> call) {
+        OperationState state = states.get(operation);
+        return state.limiter.acquire()
+                .onErrorMap(RejectedException.class, ex -> {
+                    rejectionCounter(operation, ex.reason()).increment();
+                    return new ThrottledException(operation, ex.reason().name());
+                })
+                .flatMap(queuedNanos -> {
+                    state.queueTimer.record(queuedNanos, TimeUnit.NANOSECONDS);
+                    long startedAt = System.nanoTime();
+                    return guarded(operation, state, call)
+                            .doOnSuccess(ignored -> state.limiter.release(startedAt, ConcurrencyLimiter.Outcome.SUCCESS))
+                            .doOnError(ex -> state.limiter.release(startedAt, limiterOutcome(state, ex)))
+                            .doOnCancel(() -> state.limiter.release(startedAt, ConcurrencyLimiter.Outcome.IGNORED));
+                });
+    }
+
+    /**
+     * The call under the operation's breaker, timeout and hedging policy, once a permit was granted.
+     */
+    private <T> Mono<T> guarded(TalonOneOperation operation, OperationState state, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!state.breaker.tryAcquire()) {
+                state.rejections.increment();
+                return Mono.error(new CircuitOpenException(operation));
+            }
+            state.calls.increment();
+
+            Mono<Optional<T>> attempt = attempt(operation, state, call);
+            Mono<Optional<T>> result = shouldHedge(operation, state)
+                    ? hedge(state, attempt)
+                    : attempt;
+
+            return result
+                    .doOnSuccess(ignored -> state.breaker.onSuccess())
+                    .doOnError(ex -> {
+                        if (countsAsFailure(ex)) {
+                            state.breaker.onFailure();
+                        } else {
+                            state.breaker.onIgnored();
+                        }
+                    })
+                    .doOnCancel(state.breaker::onIgnored)
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    /**
+     * @return Current circuit breaker state of the operation.
+     */
+    public String breakerState(TalonOneOperation operation) {
+        return states.get(operation).breaker.state().name();
+    }
+
+    /**
+     * @return Current per-attempt timeout of the operation.
+     */
+    public Duration currentTimeout(TalonOneOperation operation) {
+        return timeout(states.get(operation));
+    }
+
+    /**
+     * @return Number of hedged attempts sent for the operation since startup.
+     */
+    public long hedgeCount(TalonOneOperation operation) {
+        return states.get(operation).hedges.sum();
+    }
+
+    /**
+     * One timed attempt; successful latencies feed the operation's percentiles. A timed-out attempt
+     * is recorded at its timeout, a lower bound of its latency, so that a lasting latency increase
+     * raises p99 and with it the timeout instead of timing out every call. Empty results are wrapped
+     * so that hedging can race attempts that complete without a value.
+     */
+    private <T> Mono<Optional<T>> attempt(TalonOneOperation operation, OperationState state, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Duration timeout = timeout(state);
+            state.active.incrementAndGet();
+            return call.get()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .timeout(timeout)
+                    .doOnSuccess(ignored -> {
+                        long elapsed = System.nanoTime() - start;
+                        state.latency.record(elapsed);
+                        state.successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                    })
+                    .doOnError(ex -> {
+                        if (ex instanceof TimeoutException) {
+                            state.latency.record(timeout.toNanos());
+                        }
+                        recordFailedAttempt(operation, ex, System.nanoTime() - start);
+                    })
+                    .doOnCancel(() -> requestTimer(operation, "CANCELLED", "CANCELLED")
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doFinally(signal -> state.active.decrementAndGet());
+        });
+    }
+
+    private void recordFailedAttempt(TalonOneOperation operation, Throwable ex, long elapsedNanos) {
+        String outcome;
+        String status;
+        if (ex instanceof WebClientResponseException responseException) {
+            int code = responseException.getStatusCode().value();
+            outcome = code == 429 ? "THROTTLED" : code >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR";
+            status = String.valueOf(code);
+        } else if (ex instanceof TimeoutException) {
+            outcome = "TIMEOUT";
+            status = "TIMEOUT";
+        } else {
+            outcome = "IO_ERROR";
+            status = "IO_ERROR";
+        }
+        requestTimer(operation, outcome, status).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer requestTimer(TalonOneOperation operation, String outcome, String status) {
+        return Timer.builder(REQUESTS_METRIC)
+                .tag("operation", operation.name())
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private Counter rejectionCounter(TalonOneOperation operation, ConcurrencyLimiter.RejectReason reason) {
+        return Counter.builder("talonone.limiter.rejections")
+                .tag("operation", operation.name())
+                .tag("reason", reason.name())
+                .description("Calls rejected by the concurrency limiter without contacting Talon.One")
+                .register(meterRegistry);
+    }
+
+    private void registerGauges(TalonOneOperation operation, OperationState state) {
+        String tag = operation.name();
+        Gauge.builder("talonone.limiter.limit", state.limiter, ConcurrencyLimiter::limit)
+                .tag("operation", tag)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("talonone.limiter.queued", state.limiter, ConcurrencyLimiter::queued)
+                .tag("operation", tag)
+                .description("Calls waiting for a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("talonone.requests.active", state.active, AtomicInteger::get)
+                .tag("operation", tag)
+                .description("Talon.One attempts currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("talonone.circuit.state", state.breaker, breaker -> breaker.state().ordinal())
+                .tag("operation", tag)
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        TimeGauge.builder("talonone.timeout", state, TimeUnit.NANOSECONDS, s -> timeout(s).toNanos())
+                .tag("operation", tag)
+                .description("Current adaptive per-attempt timeout")
+                .register(meterRegistry);
+        FunctionCounter.builder("talonone.hedges", state.hedges, LongAdder::sum)
+                .tag("operation", tag)
+                .description("Hedged attempts sent")
+                .register(meterRegistry);
+    }
+
+    private <T> Mono<Optional<T>> hedge(OperationState state, Mono<Optional<T>> attempt) {
+        Duration hedgeDelay = Duration.ofNanos(state.latency.percentileNanos(0.95));
+        // The first attempt is subscribed once and shared, so the hedge is only sent while it is outstanding
+        return attempt
+                .publish(primary -> Mono.firstWithValue(primary, hedgeWhileOutstanding(state, attempt, primary, hedgeDelay)))
+                .onErrorMap(TalonOneResilience::unwrapHedgeFailure);
+    }
+
+    private <T> Mono<Optional<T>> hedgeWhileOutstanding(OperationState state, Mono<Optional<T>> attempt,
+                                                        Mono<Optional<T>> primary, Duration hedgeDelay) {
+        return Mono.delay(hedgeDelay)
+                .takeUntilOther(primary.materialize())
+                .flatMap(tick -> {
+                    // A second request to Talon.One; without a free permit the first attempt carries on alone
+                    if (!state.limiter.tryAcquire()) {
+                        return Mono.<Optional<T>>empty();
+                    }
+                    state.hedges.increment();
+                    long startedAt = System.nanoTime();
+                    return attempt
+                            .doOnSuccess(ignored -> state.limiter.release(startedAt, ConcurrencyLimiter.Outcome.SUCCESS))
+                            .doOnError(ex -> state.limiter.release(startedAt, limiterOutcome(state, ex)))
+                            .doOnCancel(() -> state.limiter.release(startedAt, ConcurrencyLimiter.Outcome.IGNORED));
+                });
+    }
+
+    private boolean shouldHedge(TalonOneOperation operation, OperationState state) {
+        return properties.getHedgedOperations().contains(operation)
+                && state.breaker.state() == CircuitBreaker.State.CLOSED
+                && state.latency.sampleCount() >= properties.getMinLatencySamples()
+                && state.hedges.sum() < state.calls.sum() * properties.getHedgeBudget();
+    }
+
+    private Duration timeout(OperationState state) {
+        long maxNanos = properties.getMaxTimeout().toNanos();
+        if (state.latency.sampleCount() < properties.getMinLatencySamples()) {
+            return properties.getMaxTimeout();
+        }
+        long adaptive = (long) (state.latency.percentileNanos(0.99) * properties.getTimeoutMultiplier());
+        return Duration.ofNanos(Math.max(properties.getMinTimeout().toNanos(), Math.min(adaptive, maxNanos)));
+    }
+
+    private static boolean countsAsFailure(Throwable ex) {
+        if (ex instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().value() >= 500;
+        }
+        return true;
+    }
+
+    /**
+     * Throttling and timeouts signal that Talon.One is at capacity; a 429 additionally pauses the
+     * operation for its <code>Retry-After</code>. Other failures leave the limit unchanged.
+     */
+    private ConcurrencyLimiter.Outcome limiterOutcome(OperationState state, Throwable ex) {
+        if (ex instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == 429) {
+            Duration retryAfter = retryAfter(responseException);
+            if (retryAfter != null) {
+                state.limiter.pause(Math.min(retryAfter.toNanos(), limiterProperties.getMaxRetryAfter().toNanos()));
+            }
+            return ConcurrencyLimiter.Outcome.DROPPED;
+        }
+        return ex instanceof TimeoutException ? ConcurrencyLimiter.Outcome.DROPPED : ConcurrencyLimiter.Outcome.IGNORED;
+    }
+
+    /**
+     * Parses a <code>Retry-After</code> header given in seconds or as an HTTP date.
+     *
+     * @return The requested pause, or null if the header is absent or malformed.
+     */
+    private static Duration retryAfter(WebClientResponseException ex) {
+        String value = ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration pause = Duration.between(ZonedDateTime.now(until.getZone()), until);
+                return pause.isNegative() ? Duration.ZERO : pause;
+            } catch (DateTimeParseException malformed) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * When every hedged attempt failed, surfaces the first attempt's error instead of Reactor's
+     * aggregate NoSuchElementException.
+     */
+    private static Throwable unwrapHedgeFailure(Throwable ex) {
+        if (ex instanceof NoSuchElementException && ex.getCause() != null) {
+            List<Throwable> causes = Exceptions.unwrapMultiple(ex.getCause());
+            if (!causes.isEmpty()) {
+                return causes.get(0);
+            }
+        }
+        return ex;
+    }
+
+    private static final class OperationState {
+        private final ConcurrencyLimiter limiter;
+        private final CircuitBreaker breaker;
+        private final LatencyTracker latency;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer successTimer;
+        private final Counter rejections;
+        private final Timer queueTimer;
+
+        private OperationState(TalonOneOperation operation, TalonOneProperties.Resilience properties,
+                               TalonOneProperties.Limiter limiterProperties, MeterRegistry meterRegistry) {
+            this.limiter = new ConcurrencyLimiter(limiterProperties.getInitialLimit(), limiterProperties.getMinLimit(),
+                    limiterProperties.maxLimitOf(operation), limiterProperties.getBackoffRatio(),
+                    limiterProperties.getMaxQueueSize(), limiterProperties.getMaxQueueTime().toNanos());
+            this.breaker = new CircuitBreaker(properties.getSlidingWindowSize(), properties.getMinimumCalls(),
+                    properties.getFailureRateThreshold(), properties.getOpenDuration().toNanos(),
+                    properties.getHalfOpenCalls());
+            this.latency = new LatencyTracker(properties.getLatencyWindowSize());
+            this.successTimer = Timer.builder(REQUESTS_METRIC)
+                    .tag("operation", operation.name())
+                    .tag("outcome", "SUCCESS")
+                    .tag("status", "2xx")
+                    .register(meterRegistry);
+            this.rejections = Counter.builder("talonone.circuit.rejections")
+                    .tag("operation", operation.name())
+                    .description("Calls failed fast by an open circuit breaker")
+                    .register(meterRegistry);
+            this.queueTimer = Timer.builder("talonone.limiter.queue")
+                    .tag("operation", operation.name())
+                    .description("Time calls waited for a concurrency permit")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.app.talonone;
+
+import com.app.cache.TtlCache;
+import com.app.config.TalonOneProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Routes Talon.One calls across the configured deployments (<code>talonone.endpoints</code>).
+ * <p>
+ * Each endpoint keeps an exponentially weighted moving average (EWMA) of its observed latency. Calls
+ * not tied to a user go to the healthy endpoint with the lowest average; endpoints with no samples
+ * yet are tried first, and a <code>probe-ratio</code> share of these calls goes to a random other
+ * healthy endpoint so every average stays current. An endpoint failing
+ * <code>consecutive-failures</code> calls in a row (server errors, timeouts, connection failures) is
+ * ejected for a base ejection time that grows with each repeated ejection; the last healthy endpoint
+ * is never ejected.
+ * </p>
+ *
+ * <p>
+ * User-scoped calls (profile, session, loyalty) are sticky: once every endpoint has
+ * <code>min-samples</code> latency samples, a user is assigned to the fastest healthy endpoint and
+ * stays there while it is healthy, so their profile, sessions and loyalty ledger live in one
+ * deployment close to them. Until then their calls are routed like calls not tied to a user,
+ * probes included, without assigning. A user is reassigned only when their endpoint is ejected.
+ * When a user is (re)assigned, listeners are told, so the profile can be pushed to the new
+ * deployment. With a single endpoint every call goes there and no assignment is tracked.
+ * </p>
+ */
+@Component
+public class TalonOneRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TalonOneRouter.class);
+
+    private final List<Endpoint> endpoints;
+    private final TalonOneProperties.Routing properties;
+    private final TtlCache<String, Endpoint> assignments;
+    private final List<Consumer<String>> assignmentListeners = new CopyOnWriteArrayList<>();
+
+    public TalonOneRouter(TalonOneProperties talonOneProperties) {
+        this.properties = talonOneProperties.getRouting();
+        List<Endpoint> configured = new ArrayList<>();
+        for (TalonOneProperties.Endpoint endpoint : talonOneProperties.resolvedEndpoints()) {
+            configured.add(new Endpoint(endpoint.getName(), endpoint.getBaseUrl(), endpoint.getApiKey()));
+        }
+        this.endpoints = List.copyOf(configured);
+        this.assignments = new TtlCache<>(properties.getMaxStickyUsers(), Duration.ofDays(1));
+    }
+
+    /**
+     * @return The configured endpoints, in configuration order.
+     */
+    public List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Registers a listener called with the user ID whenever a user is assigned to an endpoint
+     * other than the one they were routed to before (including their first assignment).
+     *
+     * @param listener Assignment listener; must be fast and must not call back into the router.
+     */
+    public void addAssignmentListener(Consumer<String> listener) {
+        assignmentListeners.add(listener);
+    }
+
+    /**
+     * Picks the endpoint for a call not tied to a user.
+     *
+     * @return The fastest healthy endpoint, or occasionally another healthy one as a latency probe.
+     */
+    public Endpoint route() {
+        long now = System.nanoTime();
+        Endpoint best = fastestHealthy(now);
+        if (endpoints.size() > 1 && ThreadLocalRandom.current().nextDouble() < properties.getProbeRatio()) {
+            Endpoint probe = endpoints.get(ThreadLocalRandom.current().nextInt(endpoints.size()));
+            if (probe != best && !probe.isEjected(now)) {
+                return probe;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks the endpoint for a user-scoped call, keeping the user on their assigned endpoint while
+     * it is healthy.
+     *
+     * @param userId The ID of the user.
+     * @return The endpoint to call.
+     */
+    public Endpoint route(String userId) {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        long now = System.nanoTime();
+        Endpoint assigned = assignments.get(userId);
+        if (assigned != null && !assigned.isEjected(now)) {
+            return assigned;
+        }
+        if (!allMeasured()) {
+            // The probes of route() complete the measurements
+            return route();
+        }
+        Endpoint best = fastestHealthy(now);
+        assignments.put(userId, best);
+        if (assigned != best) {
+            for (Consumer<String> listener : assignmentListeners) {
+                listener.accept(userId);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records latency and outcome of one request to an endpoint.
+     *
+     * @param endpoint The endpoint the request was sent to.
+     * @param request  The request.
+     * @param <T>      Result type.
+     * @return The observed request.
+     */
+    public <T> Mono<T> observe(Endpoint endpoint, Mono<T> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request
+                    .doOnSuccess(ignored -> endpoint.onSuccess(System.nanoTime() - start, properties.getEwmaWeight()))
+                    .doOnError(ex -> {
+                        if (isEndpointFailure(ex) && endpoint.onFailure(properties, canEject())) {
+                            logger.warn("Ejected Talon.One endpoint {} after {} consecutive failures",
+                                    endpoint.name(), properties.getConsecutiveFailures());
+                        }
+                    });
+        });
+    }
+
+    private Endpoint fastestHealthy(long now) {
+        Endpoint best = null;
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.isEjected(now) && (best == null || endpoint.rank() < best.rank())) {
+                best = endpoint;
+            }
+        }
+        // Every endpoint ejected: the one returning soonest
+        if (best == null) {
+            for (Endpoint endpoint : endpoints) {
+                if (best == null || endpoint.ejectedUntil() - best.ejectedUntil() < 0) {
+                    best = endpoint;
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean allMeasured() {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.sampleCount() < properties.getMinSamples()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean canEject() {
+        long now = System.nanoTime();
+        int healthy = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.isEjected(now)) {
+                healthy++;
+            }
+        }
+        return healthy > 1;
+    }
+
+    private static boolean isEndpointFailure(Throwable ex) {
+        if (ex instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+
+    /**
+     * One Talon.One deployment with its credentials and health state. The health state is read on
+     * every routed call and guarded by a {@link ReentrantLock}, which virtual threads can wait on
+     * without pinning.
+     */
+    public static final class Endpoint {
+
+        private final String name;
+        private final String baseUrl;
+        private final String apiKey;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private double latencyEwmaNanos;
+        private long samples;
+        private int consecutiveFailures;
+        private int ejections;
+        private boolean ejected;
+        private long ejectedUntil;
+
+        private Endpoint(String name, String baseUrl, String apiKey) {
+            this.name = name;
+            this.baseUrl = baseUrl;
+            this.apiKey = apiKey;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String baseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * Sets the endpoint's API key on a request.
+         */
+        public void authorize(HttpHeaders headers) {
+            headers.setBearerAuth(apiKey);
+        }
+
+        /**
+         * @return Moving average of the observed latency in nanoseconds, or 0 before the first sample.
+         */
+        public double latencyEwmaNanos() {
+            lock.lock();
+            try {
+                return latencyEwmaNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return true if the endpoint is currently ejected.
+         */
+        public boolean isEjected() {
+            return isEjected(System.nanoTime());
+        }
+
+        boolean isEjected(long now) {
+            lock.lock();
+            try {
+                if (ejected && now - ejectedUntil >= 0) {
+                    ejected = false;
+                }
+                return ejected;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long ejectedUntil() {
+            lock.lock();
+            try {
+                return ejectedUntil;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long sampleCount() {
+            lock.lock();
+            try {
+                return samples;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Unmeasured endpoints rank first so they get probed.
+         */
+        double rank() {
+            lock.lock();
+            try {
+                return samples == 0 ? -1 : latencyEwmaNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSuccess(long latencyNanos, double weight) {
+            lock.lock();
+            try {
+                latencyEwmaNanos = samples == 0 ? latencyNanos : weight * latencyNanos + (1 - weight) * latencyEwmaNanos;
+                samples++;
+                consecutiveFailures = 0;
+                ejections = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return true if this failure ejected the endpoint.
+         */
+        boolean onFailure(TalonOneProperties.Routing properties, boolean mayEject) {
+            lock.lock();
+            try {
+                consecutiveFailures++;
+                if (ejected || !mayEject || consecutiveFailures < properties.getConsecutiveFailures()) {
+                    return false;
+                }
+                ejections++;
+                Duration ejection = properties.getBaseEjectionTime().multipliedBy(ejections);
+                if (ejection.compareTo(properties.getMaxEjectionTime()) > 0) {
+                    ejection = properties.getMaxEjectionTime();
+                }
+                ejected = true;
+                ejectedUntil = System.nanoTime() + ejection.toNanos();
+                consecutiveFailures = 0;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}